@@ -0,0 +1,207 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of the one based column numbers which need to be read from the rows.
+ * <p>
+ * The columns are kept as sorted disjoint ranges so wide ranges such as <code>cell(1, 16384)</code> do not take any
+ * extra memory. The special instance {@link #ALL} means that the whole rows must be read.
+ */
+public final class ColumnProjection {
+
+    public static final ColumnProjection ALL = new ColumnProjection(null);
+    public static final ColumnProjection NONE = new ColumnProjection(new int[0]);
+
+    public static ColumnProjection of(int... columns) {
+        ColumnProjection projection = NONE;
+        for (int column : columns) {
+            projection = projection.union(range(column, column));
+        }
+        return projection;
+    }
+
+    public static ColumnProjection range(int from, int to) {
+        if (from > to) {
+            return NONE;
+        }
+        return new ColumnProjection(new int[] {from, to});
+    }
+
+    private ColumnProjection(int[] ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * @return true if the whole rows must be read
+     */
+    public boolean isAll() {
+        return ranges == null;
+    }
+
+    public boolean isEmpty() {
+        return ranges != null && ranges.length == 0;
+    }
+
+    public boolean contains(int column) {
+        if (ranges == null) {
+            return true;
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (column < ranges[i]) {
+                return false;
+            }
+            if (column <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calls the consumer for every column of this projection between the first and the last column inclusive
+     * in ascending order.
+     * @param first the first one based column
+     * @param last the last one based column
+     * @param consumer the consumer of the columns
+     */
+    public void forEachColumn(int first, int last, IntConsumer consumer) {
+        if (ranges == null) {
+            for (int column = first; column <= last; column++) {
+                consumer.accept(column);
+            }
+            return;
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            for (int column = Math.max(first, ranges[i]); column <= Math.min(last, ranges[i + 1]); column++) {
+                consumer.accept(column);
+            }
+        }
+    }
+
+    public ColumnProjection union(ColumnProjection other) {
+        if (ranges == null || other.ranges == null) {
+            return ALL;
+        }
+        if (ranges.length == 0) {
+            return other;
+        }
+        if (other.ranges.length == 0) {
+            return this;
+        }
+
+        int[] all = Arrays.copyOf(ranges, ranges.length + other.ranges.length);
+        System.arraycopy(other.ranges, 0, all, ranges.length, other.ranges.length);
+
+        Integer[] order = new Integer[all.length / 2];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(all[a * 2], all[b * 2]));
+
+        List<Integer> merged = new ArrayList<Integer>();
+        for (int index : order) {
+            int from = all[index * 2];
+            int to = all[index * 2 + 1];
+            int last = merged.size() - 1;
+            if (last > 0 && from <= merged.get(last) + 1) {
+                merged.set(last, Math.max(merged.get(last), to));
+            } else {
+                merged.add(from);
+                merged.add(to);
+            }
+        }
+
+        return new ColumnProjection(toArray(merged));
+    }
+
+    public ColumnProjection intersect(ColumnProjection other) {
+        if (ranges == null) {
+            return other;
+        }
+        if (other.ranges == null) {
+            return this;
+        }
+
+        List<Integer> intersection = new ArrayList<Integer>();
+        int i = 0;
+        int j = 0;
+        while (i < ranges.length && j < other.ranges.length) {
+            int from = Math.max(ranges[i], other.ranges[j]);
+            int to = Math.min(ranges[i + 1], other.ranges[j + 1]);
+            if (from <= to) {
+                intersection.add(from);
+                intersection.add(to);
+            }
+            if (ranges[i + 1] < other.ranges[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+
+        return new ColumnProjection(toArray(intersection));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ColumnProjection)) {
+            return false;
+        }
+        return Arrays.equals(ranges, ((ColumnProjection) o).ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ranges);
+    }
+
+    @Override
+    public String toString() {
+        if (ranges == null) {
+            return "ColumnProjection[ALL]";
+        }
+        List<String> columns = new ArrayList<String>();
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] == ranges[i + 1]) {
+                columns.add(String.valueOf(ranges[i]));
+            } else {
+                columns.add(ranges[i] + "-" + ranges[i + 1]);
+            }
+        }
+        return "ColumnProjection" + columns;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private final int[] ranges;
+}
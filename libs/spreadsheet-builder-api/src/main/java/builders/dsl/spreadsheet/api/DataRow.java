@@ -23,6 +23,8 @@ import java.util.Map;
 
 /**
  * Wraps row so it can be accessible using the names from headers.
+ * <p>
+ * Use {@link RowMapper} to map large number of rows to records or plain Java objects.
  */
 public final class DataRow implements Row {
 
@@ -45,13 +47,17 @@ public final class DataRow implements Row {
     private DataRow(Row row, Map<String, Integer> mapping) {
         this.row = row;
 
-        Map<String, Cell> cells = new HashMap<String, Cell>(row.getCells().size());
+        Collection<? extends Cell> rowCells = row.getCells();
+        Map<Integer, Cell> byColumn = new HashMap<Integer, Cell>(rowCells.size() * 2);
+        for (Cell cell : rowCells) {
+            byColumn.put(cell.getColumn(), cell);
+        }
 
+        Map<String, Cell> cells = new HashMap<String, Cell>(mapping.size() * 2);
         for (Map.Entry<String, Integer> entry : mapping.entrySet()) {
-            for (Cell cell : row.getCells()) {
-                if (cell.getColumn() == entry.getValue()) {
-                    cells.put(entry.getKey(), cell);
-                }
+            Cell cell = byColumn.get(entry.getValue());
+            if (cell != null) {
+                cells.put(entry.getKey(), cell);
             }
         }
 
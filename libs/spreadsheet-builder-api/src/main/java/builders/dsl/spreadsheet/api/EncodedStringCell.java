@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.api;
+
+/**
+ * Cell which keeps its string value encoded and is able to compare it with another string without decoding it.
+ */
+public interface EncodedStringCell extends Cell {
+
+    /**
+     * Returns true if the value of the cell read as string equals to given value.
+     * @param value the expected value
+     * @param utf8 the expected value encoded in UTF-8
+     * @return true if the value of the cell read as string equals to given value
+     */
+    boolean stringEquals(String value, byte[] utf8);
+
+}
@@ -17,7 +17,9 @@
  */
 package builders.dsl.spreadsheet.api;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public interface Row {
 
@@ -26,6 +28,26 @@ public interface Row {
 
     Collection<? extends Cell> getCells();
 
+    /**
+     * Returns only the cells within given projection.
+     * <p>
+     * Implementations may use the projection to avoid reading or wrapping the cells which are not needed.
+     * @param projection the columns to be returned
+     * @return the cells of this row within given projection
+     */
+    default Collection<? extends Cell> getCells(ColumnProjection projection) {
+        if (projection.isAll()) {
+            return getCells();
+        }
+        List<Cell> cells = new ArrayList<Cell>();
+        for (Cell cell : getCells()) {
+            if (projection.contains(cell.getColumn())) {
+                cells.add(cell);
+            }
+        }
+        return cells;
+    }
+
     Row getAbove();
     Row getAbove(int howMany);
     Row getBelow();
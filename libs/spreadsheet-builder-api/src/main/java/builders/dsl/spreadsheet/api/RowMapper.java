@@ -0,0 +1,381 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.api;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Maps the rows to records or plain Java objects using the labels from the header row.
+ * <p>
+ * The properties of the type (the components of the record or the setters of the object) are matched with the header
+ * labels ignoring the case and any non-alphanumeric characters so <code>First Name</code> header is mapped to
+ * <code>firstName</code> property. The header row is resolved only once for all the data rows and the values are set
+ * using cached method handles.
+ *
+ * @param <T> the type of the mapped objects
+ */
+public final class RowMapper<T> {
+
+    public static <T> RowMapper<T> create(Class<T> type) {
+        return create(type, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Creates new mapper with explicit header labels for some of the properties.
+     * @param type the type of the mapped objects
+     * @param headers the header labels by the property names
+     * @param <T> the type of the mapped objects
+     * @return new mapper for given type
+     */
+    public static <T> RowMapper<T> create(Class<T> type, Map<String, String> headers) {
+        if (type.isRecord()) {
+            return forRecord(type, headers);
+        }
+        return forBean(type, headers);
+    }
+
+    private RowMapper(Class<T> type, String[] properties, String[] labels, Class<?>[] types, MethodHandle constructor, MethodHandle[] setters) {
+        this.type = type;
+        this.properties = properties;
+        this.labels = labels;
+        this.constructor = constructor;
+        this.setters = setters;
+        this.readers = new CellReader[types.length];
+        this.defaults = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            this.readers[i] = CellReader.forType(types[i]);
+            this.defaults[i] = defaultValue(types[i]);
+        }
+    }
+
+    /**
+     * Resolves the columns of the properties from the header row.
+     * @param headersRow the row containing the header labels
+     * @return function mapping the data rows to the objects
+     */
+    public Function<Row, T> bind(Row headersRow) {
+        Map<String, Integer> columnsByLabel = new LinkedHashMap<String, Integer>();
+        for (Cell cell : headersRow.getCells()) {
+            Object value = cell.getValue();
+            if (value != null) {
+                columnsByLabel.putIfAbsent(normalize(String.valueOf(value)), cell.getColumn());
+            }
+        }
+
+        int[] columns = new int[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            Integer column = columnsByLabel.get(normalize(labels[i]));
+            columns[i] = column == null ? -1 : column;
+        }
+
+        return new Binding<T>(this, columns);
+    }
+
+    /**
+     * Maps the rows of the sheet using the first row as the header row.
+     * @param sheet the sheet to be mapped
+     * @return stream of the objects mapped from all the rows of the sheet except the first one
+     */
+    public Stream<T> stream(Sheet sheet) {
+        Iterator<? extends Row> rows = sheet.getRows().iterator();
+        if (!rows.hasNext()) {
+            return Stream.empty();
+        }
+        Function<Row, T> binding = bind(rows.next());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false).map(binding);
+    }
+
+    /**
+     * Maps the rows using the labels from the header row.
+     * @param headersRow the row containing the header labels
+     * @param rows the data rows
+     * @return stream of the objects mapped from the rows
+     */
+    public Stream<T> stream(Row headersRow, Collection<? extends Row> rows) {
+        Function<Row, T> binding = bind(headersRow);
+        return rows.stream().map(binding);
+    }
+
+    private static <T> RowMapper<T> forRecord(Class<T> type, Map<String, String> headers) {
+        RecordComponent[] components = type.getRecordComponents();
+        String[] properties = new String[components.length];
+        String[] labels = new String[components.length];
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            properties[i] = components[i].getName();
+            labels[i] = headers.getOrDefault(properties[i], properties[i]);
+            types[i] = components[i].getType();
+        }
+
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor(types);
+            constructor.trySetAccessible();
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                .asSpreader(Object[].class, types.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+            return new RowMapper<T>(type, properties, labels, types, handle, null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot access canonical constructor of " + type, e);
+        }
+    }
+
+    private static <T> RowMapper<T> forBean(Class<T> type, Map<String, String> headers) {
+        List<String> properties = new ArrayList<String>();
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        List<MethodHandle> setters = new ArrayList<MethodHandle>();
+
+        try {
+            for (Method method : type.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1 || method.getName().length() < 4 || !method.getName().startsWith("set")) {
+                    continue;
+                }
+                String property = Character.toLowerCase(method.getName().charAt(3)) + method.getName().substring(4);
+                method.trySetAccessible();
+                properties.add(property);
+                types.add(method.getParameterTypes()[0]);
+                setters.add(MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(void.class, Object.class, Object.class)));
+            }
+
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.trySetAccessible();
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+
+            String[] labels = new String[properties.size()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = headers.getOrDefault(properties.get(i), properties.get(i));
+            }
+
+            return new RowMapper<T>(type, properties.toArray(new String[0]), labels, types.toArray(new Class<?>[0]), handle, setters.toArray(new MethodHandle[0]));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot access no-argument constructor or setters of " + type, e);
+        }
+    }
+
+    private static String normalize(String label) {
+        StringBuilder normalized = new StringBuilder(label.length());
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        return CellReader.toNumber(0, type);
+    }
+
+    private static final class Binding<T> implements Function<Row, T> {
+
+        Binding(RowMapper<T> mapper, int[] columns) {
+            this.mapper = mapper;
+
+            int[] sorted = Arrays.stream(columns).filter(c -> c > 0).distinct().sorted().toArray();
+            this.columns = sorted;
+            this.slots = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                slots[i] = columns[i] > 0 ? Arrays.binarySearch(sorted, columns[i]) : -1;
+            }
+            this.projection = ColumnProjection.of(sorted);
+        }
+
+        @Override
+        public T apply(Row row) {
+            Cell[] found = new Cell[columns.length];
+            for (Cell cell : row.getCells(projection)) {
+                int index = Arrays.binarySearch(columns, cell.getColumn());
+                if (index >= 0) {
+                    found[index] = cell;
+                }
+            }
+
+            Object[] values = new Object[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                Cell cell = slots[i] < 0 ? null : found[slots[i]];
+                Object value = cell == null ? null : mapper.readers[i].read(cell);
+                values[i] = value == null ? mapper.defaults[i] : value;
+            }
+
+            try {
+                if (mapper.setters == null) {
+                    return mapper.type.cast((Object) mapper.constructor.invokeExact(values));
+                }
+                Object bean = (Object) mapper.constructor.invokeExact();
+                for (int i = 0; i < values.length; i++) {
+                    if (slots[i] >= 0) {
+                        mapper.setters[i].invokeExact(bean, values[i]);
+                    }
+                }
+                return mapper.type.cast(bean);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable th) {
+                throw new IllegalStateException("Cannot map row " + row.getNumber() + " to " + mapper.type, th);
+            }
+        }
+
+        private final RowMapper<T> mapper;
+        private final int[] columns;
+        private final int[] slots;
+        private final ColumnProjection projection;
+    }
+
+    private interface CellReader {
+
+        Object read(Cell cell);
+
+        static CellReader forType(Class<?> type) {
+            if (type == String.class || type == CharSequence.class) {
+                return cell -> {
+                    Object value = cell.getValue();
+                    return value == null || value instanceof String ? value : String.valueOf(value);
+                };
+            }
+            if (type == Object.class) {
+                return Cell::getValue;
+            }
+            if (type == boolean.class || type == Boolean.class) {
+                return cell -> {
+                    Object value = cell.getValue();
+                    if (value instanceof Boolean) {
+                        return value;
+                    }
+                    return isEmpty(value) ? null : Boolean.valueOf(String.valueOf(value).trim());
+                };
+            }
+            if (type == char.class || type == Character.class) {
+                return cell -> {
+                    Object value = cell.getValue();
+                    return isEmpty(value) ? null : String.valueOf(value).charAt(0);
+                };
+            }
+            if (type.isPrimitive() || Number.class.isAssignableFrom(type)) {
+                return cell -> {
+                    Number number = readNumber(cell);
+                    return number == null ? null : toNumber(number, type);
+                };
+            }
+            if (type.isEnum()) {
+                return cell -> {
+                    Object value = cell.getValue();
+                    return isEmpty(value) ? null : toEnum(type, String.valueOf(value).trim());
+                };
+            }
+            if (type == LocalDate.class || type == LocalDateTime.class || type == LocalTime.class || type == Date.class) {
+                return cell -> isEmpty(cell.getValue()) ? null : cell.read(type);
+            }
+            return cell -> cell.read(type);
+        }
+
+        static Number readNumber(Cell cell) {
+            Object value = cell.getValue();
+            if (value instanceof Number) {
+                return (Number) value;
+            }
+            if (isEmpty(value)) {
+                return null;
+            }
+            try {
+                return new BigDecimal(String.valueOf(value).trim());
+            } catch (NumberFormatException e) {
+                return cell.read(Number.class);
+            }
+        }
+
+        static Object toNumber(Number number, Class<?> type) {
+            if (type == int.class || type == Integer.class) {
+                return number.intValue();
+            }
+            if (type == long.class || type == Long.class) {
+                return number.longValue();
+            }
+            if (type == double.class || type == Double.class || type == Number.class) {
+                return number.doubleValue();
+            }
+            if (type == float.class || type == Float.class) {
+                return number.floatValue();
+            }
+            if (type == short.class || type == Short.class) {
+                return number.shortValue();
+            }
+            if (type == byte.class || type == Byte.class) {
+                return number.byteValue();
+            }
+            if (type == BigDecimal.class) {
+                return number instanceof BigDecimal ? number : new BigDecimal(number.toString());
+            }
+            if (type == BigInteger.class) {
+                return new BigDecimal(number.toString()).toBigInteger();
+            }
+            throw new IllegalArgumentException("Cannot convert number " + number + " to " + type);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static Object toEnum(Class<?> type, String name) {
+            return Enum.valueOf((Class) type, name);
+        }
+
+        static boolean isEmpty(Object value) {
+            return value == null || value instanceof String && ((String) value).isEmpty();
+        }
+
+    }
+
+    private final Class<T> type;
+    private final String[] properties;
+    private final String[] labels;
+    private final MethodHandle constructor;
+    private final MethodHandle[] setters;
+    private final CellReader[] readers;
+    private final Object[] defaults;
+}
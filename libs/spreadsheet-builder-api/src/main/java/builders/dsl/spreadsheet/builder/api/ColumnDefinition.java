@@ -0,0 +1,51 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.api;
+
+import builders.dsl.spreadsheet.api.Keywords;
+
+/**
+ * Defines the properties shared by the whole column.
+ */
+public interface ColumnDefinition {
+
+    /**
+     * Sets the width as multiplier of standard character width.
+     * @param width the width as multiplier of standard character width
+     */
+    ColumnDefinition width(double width);
+
+    /**
+     * Sets that the column should have automatic width.
+     * @param auto keyword
+     */
+    ColumnDefinition width(Keywords.Auto auto);
+
+    /**
+     * Sets the named style as the default style of the column. The cells of the column which don't declare any
+     * style of their own use the column style.
+     * @param name the name of the style
+     */
+    ColumnDefinition style(String name);
+
+    /**
+     * Hides the column.
+     */
+    ColumnDefinition hide();
+
+}
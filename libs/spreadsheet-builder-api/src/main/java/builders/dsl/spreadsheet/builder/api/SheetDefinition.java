@@ -62,6 +62,50 @@ public interface SheetDefinition extends SheetStateProvider {
         return freeze(Utils.parseColumn(column), row);
     }
 
+    /**
+     * Configures the column.
+     * @param column the column (1 based)
+     * @param columnDefinition definition of the column
+     */
+    SheetDefinition column(int column, Consumer<ColumnDefinition> columnDefinition);
+
+    /**
+     * Configures the column.
+     * @param column the column, e.g. <code>C</code>
+     * @param columnDefinition definition of the column
+     */
+    default SheetDefinition column(String column, Consumer<ColumnDefinition> columnDefinition) {
+        return column(Utils.parseColumn(column), columnDefinition);
+    }
+
+    /**
+     * Declares the same relative formula for every row in the given range of the column, e.g. <code>B2*C2</code>
+     * for rows 2 to 1000 of column <code>D</code>. The formula is written for the first row of the range
+     * and the relative references are shifted for every other row.
+     *
+     * The formula is stored only once as a shared formula if the spreadsheet format supports it. Named references
+     * are not supported within the column formula.
+     *
+     * @param column the column of the formula (1 based)
+     * @param firstRow the first row of the range (1 based)
+     * @param lastRow the last row of the range (1 based, inclusive)
+     * @param formula the formula for the first row of the range
+     */
+    SheetDefinition formula(int column, int firstRow, int lastRow, String formula);
+
+    /**
+     * Declares the same relative formula for every row in the given range of the column.
+     *
+     * @param column the column of the formula, e.g. <code>D</code>
+     * @param firstRow the first row of the range (1 based)
+     * @param lastRow the last row of the range (1 based, inclusive)
+     * @param formula the formula for the first row of the range
+     * @see #formula(int, int, int, String)
+     */
+    default SheetDefinition formula(String column, int firstRow, int lastRow, String formula) {
+        return formula(Utils.parseColumn(column), firstRow, lastRow, formula);
+    }
+
     SheetDefinition group(Consumer<SheetDefinition> insideGroupDefinition);
     SheetDefinition collapse(Consumer<SheetDefinition> insideGroupDefinition);
 
@@ -104,10 +104,12 @@ public abstract class AbstractCellStyleDefinition implements CellStyleDefinition
         }
 
         fontConfiguration.accept(font);
+        doFont(font);
         return this;
     }
 
     protected abstract FontDefinition createFont();
+    protected abstract void doFont(FontDefinition font);
 
     @Override
     public final CellStyleDefinition indent(int indent) {
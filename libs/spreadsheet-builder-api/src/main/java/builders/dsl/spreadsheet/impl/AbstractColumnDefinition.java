@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.impl;
+
+import builders.dsl.spreadsheet.api.Keywords;
+import builders.dsl.spreadsheet.builder.api.ColumnDefinition;
+
+import java.util.Collections;
+
+public abstract class AbstractColumnDefinition implements ColumnDefinition {
+
+    protected AbstractColumnDefinition(AbstractSheetDefinition sheet, int zeroBasedColumn) {
+        this.sheet = sheet;
+        this.column = zeroBasedColumn;
+    }
+
+    @Override
+    public final ColumnDefinition width(Keywords.Auto auto) {
+        sheet.addAutoColumn(column);
+        return this;
+    }
+
+    @Override
+    public final ColumnDefinition style(String name) {
+        doStyle(sheet.getWorkbook().getStyles(Collections.singleton(name)));
+        return this;
+    }
+
+    protected abstract void doStyle(AbstractCellStyleDefinition style);
+
+    protected int getColumn() {
+        return column;
+    }
+
+    private final AbstractSheetDefinition sheet;
+    private final int column;
+}
@@ -18,6 +18,7 @@
 package builders.dsl.spreadsheet.impl;
 
 import builders.dsl.spreadsheet.api.Keywords;
+import builders.dsl.spreadsheet.builder.api.ColumnDefinition;
 import builders.dsl.spreadsheet.builder.api.PageDefinition;
 import builders.dsl.spreadsheet.builder.api.Resolvable;
 import builders.dsl.spreadsheet.builder.api.RowDefinition;
@@ -117,6 +118,31 @@ public abstract class AbstractSheetDefinition implements SheetDefinition, Resolv
     protected abstract void doPassword(String password);
     protected abstract void doFreeze(int column, int row);
 
+    @Override
+    public final SheetDefinition column(int column, Consumer<ColumnDefinition> columnDefinition) {
+        if (column <= 0) {
+            throw new IllegalArgumentException("Column index is based on 1. Got: " + column);
+        }
+        columnDefinition.accept(createColumnDefinition(column - 1));
+        return this;
+    }
+
+    protected abstract ColumnDefinition createColumnDefinition(int zeroBasedColumn);
+
+    @Override
+    public final SheetDefinition formula(int column, int firstRow, int lastRow, String formula) {
+        if (column <= 0 || firstRow <= 0) {
+            throw new IllegalArgumentException("Column and row index are based on 1. Got: " + column + ", " + firstRow);
+        }
+        if (lastRow < firstRow) {
+            throw new IllegalArgumentException("Last row " + lastRow + " must not be before the first row " + firstRow);
+        }
+        doFormula(column - 1, firstRow - 1, lastRow - 1, formula);
+        return this;
+    }
+
+    protected abstract void doFormula(int zeroBasedColumn, int zeroBasedFirstRow, int zeroBasedLastRow, String formula);
+
     @Override
     public final SheetDefinition collapse(Consumer<SheetDefinition> insideGroupDefinition) {
         createGroup(true, insideGroupDefinition);
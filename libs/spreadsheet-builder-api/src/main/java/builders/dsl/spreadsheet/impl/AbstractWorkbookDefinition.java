@@ -100,4 +100,8 @@ public abstract class AbstractWorkbookDefinition implements WorkbookDefinition {
     protected void addPendingLink(AbstractPendingLink link) {
         toBeResolved.add(link);
     }
+
+    protected void addPending(Resolvable resolvable) {
+        toBeResolved.add(resolvable);
+    }
 }
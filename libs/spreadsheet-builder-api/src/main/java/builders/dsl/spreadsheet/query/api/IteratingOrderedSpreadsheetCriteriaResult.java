@@ -0,0 +1,119 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.api;
+
+import builders.dsl.spreadsheet.api.Cell;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Ordered result sorting the cells of any {@link SpreadsheetCriteriaResult} while iterating over them. Only the first
+ * cells are kept if the limit is set. The cells comparing as equal are kept in the order of the iteration.
+ * The cells are always iterated in a single thread.
+ */
+final class IteratingOrderedSpreadsheetCriteriaResult implements OrderedSpreadsheetCriteriaResult {
+
+    IteratingOrderedSpreadsheetCriteriaResult(SpreadsheetCriteriaResult result, Comparator<? super Cell> comparator, int limit) {
+        this.result = result;
+        this.comparator = comparator;
+        this.limit = limit;
+    }
+
+    @Override
+    public OrderedSpreadsheetCriteriaResult limit(int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + max);
+        }
+        return new IteratingOrderedSpreadsheetCriteriaResult(result, comparator, Math.min(limit, max));
+    }
+
+    @Override
+    public OrderedSpreadsheetCriteriaResult parallel() {
+        return this;
+    }
+
+    @Override
+    public List<Cell> getCells() {
+        return getCells(limit);
+    }
+
+    @Override
+    public Cell getCell() {
+        List<Cell> cells = getCells(Math.min(limit, 1));
+        if (cells.size() > 0) {
+            return cells.get(0);
+        }
+        return null;
+    }
+
+    @Override
+    public Iterator<Cell> iterator() {
+        return getCells().iterator();
+    }
+
+    @Override
+    public String toString() {
+        return getCells().toString();
+    }
+
+    private List<Cell> getCells(int max) {
+        List<Cell> cells = new ArrayList<Cell>();
+        if (max == 0) {
+            return cells;
+        }
+        if (max == Integer.MAX_VALUE) {
+            result.forEach(cells::add);
+            cells.sort(comparator);
+            return cells;
+        }
+        result.forEach(cell -> {
+            if (cells.size() == max && comparator.compare(cell, cells.get(max - 1)) >= 0) {
+                return;
+            }
+            cells.add(insertionPoint(cells, cell), cell);
+            if (cells.size() > max) {
+                cells.remove(max);
+            }
+        });
+        return cells;
+    }
+
+    /**
+     * @return the index after all the cells comparing as less or equal to the given cell
+     */
+    private int insertionPoint(List<Cell> cells, Cell cell) {
+        int low = 0;
+        int high = cells.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(cells.get(middle), cell) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private final SpreadsheetCriteriaResult result;
+    private final Comparator<? super Cell> comparator;
+    private final int limit;
+}
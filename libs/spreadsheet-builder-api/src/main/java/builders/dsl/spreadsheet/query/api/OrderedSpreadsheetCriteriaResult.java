@@ -0,0 +1,58 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.api;
+
+import builders.dsl.spreadsheet.api.Cell;
+
+import java.util.List;
+
+/**
+ * Cells matching the criteria sorted by the comparator given to {@link SpreadsheetCriteriaResult#orderBy}.
+ * <p>
+ * If the limit is set only the first cells are kept while the spreadsheet is being scanned so the memory needed is
+ * proportional to the limit rather than to the number of the matching cells.
+ */
+public interface OrderedSpreadsheetCriteriaResult extends Iterable<Cell> {
+
+    /**
+     * Returns the result limited to given number of the first cells.
+     * @param max maximal number of the cells returned
+     * @return the result limited to given number of the first cells
+     */
+    OrderedSpreadsheetCriteriaResult limit(int max);
+
+    /**
+     * Returns the result which scans every sheet in parallel and merges the results of the individual sheets.
+     * The criteria must be safe to be queried from multiple threads, e.g. created using <code>forFileShared</code>.
+     * @return the result which scans every sheet in parallel
+     */
+    OrderedSpreadsheetCriteriaResult parallel();
+
+    /**
+     * Returns the matching cells sorted by the comparator.
+     * @return the matching cells sorted by the comparator
+     */
+    List<Cell> getCells();
+
+    /**
+     * Returns the first matching cell according to the comparator or null.
+     * @return the first matching cell according to the comparator or null
+     */
+    Cell getCell();
+
+}
@@ -26,12 +26,23 @@ import java.util.function.Consumer;
  * Cell matcher uses the builder like syntax to find cells within the workbook.
  * Not all the constructs are be supported at the moment.
  * Check the documentation for the list of all supported features.
+ *
+ * The criteria may keep the underlying spreadsheet open until it is closed.
  */
-public interface SpreadsheetCriteria {
+public interface SpreadsheetCriteria extends AutoCloseable {
 
     SpreadsheetCriteriaResult all();
     SpreadsheetCriteriaResult query(Consumer<WorkbookCriterion> workbookCriterion) throws FileNotFoundException;
     Cell find(Consumer<WorkbookCriterion> workbookCriterion) throws FileNotFoundException;
     boolean exists(Consumer<WorkbookCriterion> workbookCriterion) throws FileNotFoundException;
 
+    /**
+     * Releases any resources held by the criteria such as open files. The results of the previous queries must not
+     * be accessed after the criteria has been closed.
+     */
+    @Override
+    default void close() {
+        // nothing to close by default
+    }
+
 }
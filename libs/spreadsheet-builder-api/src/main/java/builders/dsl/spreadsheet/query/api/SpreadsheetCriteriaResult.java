@@ -18,10 +18,19 @@
 package builders.dsl.spreadsheet.query.api;
 
 import builders.dsl.spreadsheet.api.Cell;
+import builders.dsl.spreadsheet.api.ColumnProjection;
 import builders.dsl.spreadsheet.api.Row;
 import builders.dsl.spreadsheet.api.Sheet;
+import builders.dsl.spreadsheet.impl.Utils;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
 
 public interface SpreadsheetCriteriaResult extends Iterable<Cell> {
 
@@ -63,4 +72,118 @@ public interface SpreadsheetCriteriaResult extends Iterable<Cell> {
      */
     Sheet getSheet();
 
+    /**
+     * Returns the matching cells sorted by given comparator. Use {@link OrderedSpreadsheetCriteriaResult#limit(int)}
+     * to keep only the first cells while the spreadsheet is being scanned.
+     * <p>
+     * The default implementation sorts the cells while iterating over this result and never scans in parallel.
+     * @param comparator the comparator of the cells
+     * @return the matching cells sorted by given comparator
+     */
+    default OrderedSpreadsheetCriteriaResult orderBy(Comparator<? super Cell> comparator) {
+        return new IteratingOrderedSpreadsheetCriteriaResult(this, comparator, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the columns which are read from the rows to evaluate the criteria. Column constraints such as
+     * <code>cell('A')</code> or <code>cell(1, 3)</code> narrow the projection while row <code>having</code>
+     * conditions and cell criteria without any column constraint require the whole rows to be read.
+     * @return the columns which are read from the rows to evaluate the criteria
+     */
+    default ColumnProjection getColumnProjection() {
+        return ColumnProjection.ALL;
+    }
+
+    /**
+     * Performs given action for each row matching the criteria. Implementations scanning the spreadsheet should not
+     * retain the rows.
+     * @param action the action to be performed for each row
+     */
+    default void forEachRow(Consumer<? super Row> action) {
+        getRows().forEach(action);
+    }
+
+    /**
+     * Returns the number of the cells matching the criteria without retaining them.
+     * @return the number of the cells matching the criteria
+     */
+    default long count() {
+        long[] count = new long[1];
+        forEach(cell -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Returns the sum of the numeric values in given column of the rows matching the criteria.
+     * @param column the one based number of the column
+     * @return the sum of the numeric values in given column of the rows matching the criteria
+     */
+    default double sum(int column) {
+        return stats(column).getSum();
+    }
+
+    default double sum(String column) {
+        return sum(Utils.parseColumn(column));
+    }
+
+    /**
+     * Returns the count, sum, minimum, average and maximum of the numeric values in given column of the rows
+     * matching the criteria. The cells which do not contain numbers are ignored.
+     * @param column the one based number of the column
+     * @return the statistics of the numeric values in given column of the rows matching the criteria
+     */
+    default DoubleSummaryStatistics stats(int column) {
+        ColumnProjection projection = ColumnProjection.of(column);
+        DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+        forEachRow(row -> {
+            for (Cell cell : row.getCells(projection)) {
+                Object value = cell.getValue();
+                if (value instanceof Number) {
+                    stats.accept(((Number) value).doubleValue());
+                }
+            }
+        });
+        return stats;
+    }
+
+    default DoubleSummaryStatistics stats(String column) {
+        return stats(Utils.parseColumn(column));
+    }
+
+    /**
+     * Groups the rows matching the criteria by the value of given column and aggregates each group using given
+     * collector, e.g. <code>groupBy(1, Collectors.summingDouble(row -&gt; ...))</code>. The rows without any cell
+     * in the key column are grouped under <code>null</code> key. The groups are returned in the order of their
+     * first occurrence.
+     * @param keyColumn the one based number of the key column
+     * @param aggregator the collector aggregating the rows of each group
+     * @param <R> the type of the aggregated values
+     * @return the aggregated values by the value of the key column
+     */
+    default <R> Map<Object, R> groupBy(int keyColumn, Collector<? super Row, ?, R> aggregator) {
+        return group(this, keyColumn, aggregator);
+    }
+
+    default <R> Map<Object, R> groupBy(String keyColumn, Collector<? super Row, ?, R> aggregator) {
+        return groupBy(Utils.parseColumn(keyColumn), aggregator);
+    }
+
+    private static <A, R> Map<Object, R> group(SpreadsheetCriteriaResult rows, int keyColumn, Collector<? super Row, A, R> aggregator) {
+        ColumnProjection projection = ColumnProjection.of(keyColumn);
+        BiConsumer<A, ? super Row> accumulator = aggregator.accumulator();
+        Map<Object, A> groups = new LinkedHashMap<Object, A>();
+        rows.forEachRow(row -> {
+            Object key = null;
+            for (Cell cell : row.getCells(projection)) {
+                key = cell.getValue();
+            }
+            accumulator.accept(groups.computeIfAbsent(key, k -> aggregator.supplier().get()), row);
+        });
+        Map<Object, R> result = new LinkedHashMap<Object, R>(groups.size() * 2);
+        for (Map.Entry<Object, A> entry : groups.entrySet()) {
+            result.put(entry.getKey(), aggregator.finisher().apply(entry.getValue()));
+        }
+        return result;
+    }
+
 }
@@ -57,6 +57,14 @@ abstract class AbstractCriterion<T, C extends Predicate<T>> implements Predicate
         predicates.add(predicate);
     }
 
+    boolean isDisjoint() {
+        return disjoint;
+    }
+
+    boolean hasConditions() {
+        return !predicates.isEmpty();
+    }
+
     private boolean passesAnyCondition(T object) {
         if (predicates.isEmpty()) {
             return true;
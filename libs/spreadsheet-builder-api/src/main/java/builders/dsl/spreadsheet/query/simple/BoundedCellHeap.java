@@ -0,0 +1,94 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.simple;
+
+import builders.dsl.spreadsheet.api.Cell;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps at most given number of the first cells according to the comparator.
+ * <p>
+ * The cells comparing as equal are kept in the order in which they were scanned, i.e. by the order of the sheet
+ * and then by the order in which they were added.
+ */
+final class BoundedCellHeap {
+
+    BoundedCellHeap(Comparator<? super Cell> comparator, int limit) {
+        this.limit = limit;
+        this.order = Comparator.<Entry, Cell>comparing(e -> e.cell, comparator)
+            .thenComparingInt(e -> e.sheet)
+            .thenComparingLong(e -> e.sequence);
+        this.entries = new PriorityQueue<Entry>(Math.min(limit, 64) + 1, order.reversed());
+    }
+
+    void add(Cell cell, int sheet) {
+        add(new Entry(cell, sheet, sequence++));
+    }
+
+    void addAll(BoundedCellHeap other) {
+        for (Entry entry : other.entries) {
+            add(entry);
+        }
+    }
+
+    /**
+     * @return the cells sorted according to the comparator
+     */
+    List<Cell> toList() {
+        List<Entry> sorted = new ArrayList<Entry>(entries);
+        sorted.sort(order);
+        List<Cell> cells = new ArrayList<Cell>(sorted.size());
+        for (Entry entry : sorted) {
+            cells.add(entry.cell);
+        }
+        return cells;
+    }
+
+    private void add(Entry entry) {
+        if (entries.size() < limit) {
+            entries.add(entry);
+            return;
+        }
+        if (limit > 0 && order.compare(entry, entries.peek()) < 0) {
+            entries.poll();
+            entries.add(entry);
+        }
+    }
+
+    private static final class Entry {
+
+        Entry(Cell cell, int sheet, long sequence) {
+            this.cell = cell;
+            this.sheet = sheet;
+            this.sequence = sequence;
+        }
+
+        private final Cell cell;
+        private final int sheet;
+        private final long sequence;
+    }
+
+    private final int limit;
+    private final Comparator<Entry> order;
+    private final PriorityQueue<Entry> entries;
+    private long sequence;
+}
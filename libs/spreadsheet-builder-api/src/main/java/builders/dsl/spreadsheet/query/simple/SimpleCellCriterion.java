@@ -19,9 +19,11 @@ package builders.dsl.spreadsheet.query.simple;
 
 import builders.dsl.spreadsheet.api.Cell;
 import builders.dsl.spreadsheet.api.Comment;
+import builders.dsl.spreadsheet.api.EncodedStringCell;
 import builders.dsl.spreadsheet.query.api.CellCriterion;
 import builders.dsl.spreadsheet.query.api.CellStyleCriterion;
 import java.util.function.Predicate;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -99,7 +101,21 @@ final class SimpleCellCriterion extends AbstractCriterion<Cell, CellCriterion> i
 
     @Override
     public SimpleCellCriterion string(String value) {
-        addValueCondition(value, String.class);
+        if (value == null) {
+            addValueCondition(value, String.class);
+            return this;
+        }
+        final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        addCondition(o -> {
+            if (o instanceof EncodedStringCell) {
+                return ((EncodedStringCell) o).stringEquals(value, utf8);
+            }
+            try {
+                return value.equals(o.read(String.class));
+            } catch (Exception e) {
+                return false;
+            }
+        });
         return this;
     }
 
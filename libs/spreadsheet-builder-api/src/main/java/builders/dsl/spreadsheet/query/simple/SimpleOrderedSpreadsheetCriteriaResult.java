@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.simple;
+
+import builders.dsl.spreadsheet.api.Cell;
+import builders.dsl.spreadsheet.query.api.OrderedSpreadsheetCriteriaResult;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+final class SimpleOrderedSpreadsheetCriteriaResult implements OrderedSpreadsheetCriteriaResult {
+
+    SimpleOrderedSpreadsheetCriteriaResult(SimpleSpreadsheetCriteriaResult result, Comparator<? super Cell> comparator, int limit, boolean parallel) {
+        this.result = result;
+        this.comparator = comparator;
+        this.limit = limit;
+        this.parallel = parallel;
+    }
+
+    @Override
+    public OrderedSpreadsheetCriteriaResult limit(int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + max);
+        }
+        return new SimpleOrderedSpreadsheetCriteriaResult(result, comparator, Math.min(limit, max), parallel);
+    }
+
+    @Override
+    public OrderedSpreadsheetCriteriaResult parallel() {
+        return new SimpleOrderedSpreadsheetCriteriaResult(result, comparator, limit, true);
+    }
+
+    @Override
+    public List<Cell> getCells() {
+        return result.getOrderedCells(comparator, limit, parallel);
+    }
+
+    @Override
+    public Cell getCell() {
+        List<Cell> cells = result.getOrderedCells(comparator, Math.min(limit, 1), parallel);
+        if (cells.size() > 0) {
+            return cells.get(0);
+        }
+        return null;
+    }
+
+    @Override
+    public Iterator<Cell> iterator() {
+        return getCells().iterator();
+    }
+
+    @Override
+    public String toString() {
+        return getCells().toString();
+    }
+
+    private final SimpleSpreadsheetCriteriaResult result;
+    private final Comparator<? super Cell> comparator;
+    private final int limit;
+    private final boolean parallel;
+}
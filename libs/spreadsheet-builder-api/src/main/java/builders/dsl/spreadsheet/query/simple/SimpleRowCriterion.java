@@ -18,6 +18,7 @@
 package builders.dsl.spreadsheet.query.simple;
 
 import builders.dsl.spreadsheet.api.Cell;
+import builders.dsl.spreadsheet.api.ColumnProjection;
 import builders.dsl.spreadsheet.api.Row;
 import builders.dsl.spreadsheet.impl.Utils;
 import builders.dsl.spreadsheet.query.api.CellCriterion;
@@ -29,19 +30,23 @@ import java.util.function.Consumer;
 final class SimpleRowCriterion extends AbstractCriterion<Cell, RowCriterion> implements RowCriterion {
 
     private final SimpleSheetCriterion parent;
+    private ColumnProjection projection;
 
     SimpleRowCriterion(SimpleSheetCriterion parent) {
         this.parent = parent;
+        this.projection = ColumnProjection.ALL;
     }
 
     private SimpleRowCriterion(SimpleSheetCriterion parent, boolean disjoint) {
         super(disjoint);
         this.parent = parent;
+        this.projection = disjoint ? ColumnProjection.NONE : ColumnProjection.ALL;
     }
 
     @Override
     public RowCriterion cell(final int from, final int to) {
         addCondition(o -> o.getColumn() >= from && o.getColumn() <= to);
+        project(ColumnProjection.range(from, to));
         return this;
     }
 
@@ -68,12 +73,14 @@ final class SimpleRowCriterion extends AbstractCriterion<Cell, RowCriterion> imp
     @Override
     public SimpleRowCriterion cell(final int column) {
         addCondition(o -> o.getColumn() == column);
+        project(ColumnProjection.of(column));
         return this;
     }
 
     @Override
     public SimpleRowCriterion cell(final String column) {
         addCondition(o -> o.getColumnAsString().equals(column));
+        project(toProjection(column));
         return this;
     }
 
@@ -82,6 +89,7 @@ final class SimpleRowCriterion extends AbstractCriterion<Cell, RowCriterion> imp
         SimpleCellCriterion criterion = new SimpleCellCriterion();
         cellCriterion.accept(criterion);
         addCondition(criterion);
+        project(ColumnProjection.ALL);
         return this;
     }
 
@@ -101,17 +109,48 @@ final class SimpleRowCriterion extends AbstractCriterion<Cell, RowCriterion> imp
 
     @Override
     public SimpleRowCriterion or(Consumer<RowCriterion> sheetCriterion) {
-        return (SimpleRowCriterion) super.or(sheetCriterion);
+        SimpleRowCriterion criterion = new SimpleRowCriterion(parent, true);
+        sheetCriterion.accept(criterion);
+        addCondition(criterion);
+        project(criterion.getProjection());
+        return this;
     }
 
     @Override
     public RowCriterion having(Predicate<Row> rowPredicate) {
         parent.addCondition(rowPredicate);
+        parent.requireFullRows();
         return this;
     }
 
+    /**
+     * @return the columns which can ever pass this criterion
+     */
+    ColumnProjection getProjection() {
+        if (isDisjoint() && !hasConditions()) {
+            return ColumnProjection.ALL;
+        }
+        return projection;
+    }
+
     @Override
     RowCriterion newDisjointCriterionInstance() {
         return new SimpleRowCriterion(parent, true);
     }
+
+    private void project(ColumnProjection condition) {
+        if (isDisjoint()) {
+            projection = projection.union(condition);
+        } else {
+            projection = projection.intersect(condition);
+        }
+    }
+
+    private static ColumnProjection toProjection(String column) {
+        int number = Utils.parseColumn(column);
+        if (number > 0 && column.equals(Utils.toColumn(number))) {
+            return ColumnProjection.of(number);
+        }
+        return ColumnProjection.ALL;
+    }
 }
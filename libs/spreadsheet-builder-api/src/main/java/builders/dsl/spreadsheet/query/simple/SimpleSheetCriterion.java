@@ -17,6 +17,7 @@
  */
 package builders.dsl.spreadsheet.query.simple;
 
+import builders.dsl.spreadsheet.api.ColumnProjection;
 import builders.dsl.spreadsheet.api.Keywords;
 import builders.dsl.spreadsheet.api.Row;
 import builders.dsl.spreadsheet.api.Sheet;
@@ -34,6 +35,8 @@ final class SimpleSheetCriterion extends AbstractCriterion<Row, SheetCriterion>
 
     private final Collection<SimpleRowCriterion> criteria = new ArrayList<>();
     private final SimpleWorkbookCriterion parent;
+    private boolean fullRows;
+    private ColumnProjection projection;
 
     SimpleSheetCriterion(SimpleWorkbookCriterion parent) {
         this.parent = parent;
@@ -49,6 +52,7 @@ final class SimpleSheetCriterion extends AbstractCriterion<Row, SheetCriterion>
         SimpleRowCriterion criterion = new SimpleRowCriterion(this);
         rowCriterion.accept(criterion);
         criteria.add(criterion);
+        projection = null;
         return this;
     }
 
@@ -98,6 +102,30 @@ final class SimpleSheetCriterion extends AbstractCriterion<Row, SheetCriterion>
         return Collections.unmodifiableCollection(criteria);
     }
 
+    void requireFullRows() {
+        fullRows = true;
+        projection = null;
+    }
+
+    /**
+     * @return the columns which needs to be read to evaluate the row criteria
+     */
+    ColumnProjection getProjection() {
+        if (projection != null) {
+            return projection;
+        }
+        if (fullRows || criteria.isEmpty()) {
+            projection = ColumnProjection.ALL;
+            return projection;
+        }
+        ColumnProjection union = ColumnProjection.NONE;
+        for (SimpleRowCriterion criterion : criteria) {
+            union = union.union(criterion.getProjection());
+        }
+        projection = union;
+        return projection;
+    }
+
     @Override
     SheetCriterion newDisjointCriterionInstance() {
         return new SimpleSheetCriterion(true, parent);
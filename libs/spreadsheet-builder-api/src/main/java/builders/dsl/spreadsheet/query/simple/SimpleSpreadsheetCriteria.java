@@ -67,5 +67,18 @@ public final class SimpleSpreadsheetCriteria implements SpreadsheetCriteria {
         return find(workbookCriterion) != null;
     }
 
+    @Override
+    public void close() {
+        if (workbook instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) workbook).close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException("Exception closing workbook: " + workbook, e);
+            }
+        }
+    }
+
 
 }
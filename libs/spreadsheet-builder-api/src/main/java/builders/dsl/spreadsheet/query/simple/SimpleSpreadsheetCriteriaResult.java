@@ -18,18 +18,53 @@
 package builders.dsl.spreadsheet.query.simple;
 
 import builders.dsl.spreadsheet.api.Cell;
+import builders.dsl.spreadsheet.api.ColumnProjection;
 import builders.dsl.spreadsheet.api.Row;
 import builders.dsl.spreadsheet.api.Sheet;
 import builders.dsl.spreadsheet.api.Workbook;
 import builders.dsl.spreadsheet.query.api.AbstractSpreadsheetCriteriaResult;
+import builders.dsl.spreadsheet.query.api.OrderedSpreadsheetCriteriaResult;
 import builders.dsl.spreadsheet.query.api.WorkbookCriterion;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 final class SimpleSpreadsheetCriteriaResult extends AbstractSpreadsheetCriteriaResult {
 
+    private enum Scan {
+        CONTINUE,
+        NEXT_SHEET,
+        STOP
+    }
+
+    /**
+     * Receives the sheets and the rows matching the criteria during the scan.
+     */
+    private interface Visitor {
+
+        /**
+         * @return true if the matching cells of the rows should be collected, otherwise the rows are only tested
+         */
+        boolean needsCells();
+
+        default Scan visitSheet(Sheet sheet) {
+            return Scan.CONTINUE;
+        }
+
+        /**
+         * @param row the matching row
+         * @param cells the matching cells of the row or null if the cells are not collected
+         * @return how to continue the scan
+         */
+        Scan visitRow(Row row, List<Cell> cells);
+    }
+
     private final Workbook workbook;
     private final Consumer<WorkbookCriterion> workbookCriterion;
     private final int max;
@@ -40,146 +75,274 @@ final class SimpleSpreadsheetCriteriaResult extends AbstractSpreadsheetCriteriaR
         this.max = max;
     }
 
-    private Collection<Cell> getCellsInternal(int currentMax) {
-        Collection<Cell> cells = new LinkedHashSet<Cell>();
+    private SimpleWorkbookCriterion createCriterion() {
         SimpleWorkbookCriterion criterion = new SimpleWorkbookCriterion();
         workbookCriterion.accept(criterion);
+        return criterion;
+    }
+
+    private void scan(Visitor visitor) {
+        SimpleWorkbookCriterion criterion = createCriterion();
+
+        List<Cell> matched = visitor.needsCells() ? new ArrayList<Cell>() : null;
 
         for (Sheet sheet : workbook.getSheets()) {
-            if (criterion.test(sheet)) {
-                for (Row row : sheet.getRows()) {
-                    if (criterion.getCriteria().isEmpty()) {
-                        cells.addAll(row.getCells());
-                        if (cells.size() >= currentMax) {
-                            return cells;
-                        }
-                    } else {
-                        for (SimpleSheetCriterion sheetCriterion : criterion.getCriteria()) {
-                            if (sheetCriterion.test(row)) {
-                                if (sheetCriterion.getCriteria().isEmpty()) {
-                                    cells.addAll(row.getCells());
-                                    if (cells.size() >= currentMax) {
-                                        return cells;
-                                    }
-                                } else {
-                                    for (Cell cell : row.getCells()) {
-                                        for (SimpleRowCriterion rowCriterion : sheetCriterion.getCriteria()) {
-                                            if (rowCriterion.test(cell)) {
-                                                cells.add(cell);
-                                                if (cells.size() >= currentMax) {
-                                                    return cells;
-                                                }
-                                            }
-                                        }
-                                    }
-                                }
-                            }
+            if (criterion.test(sheet) && scanSheet(criterion, sheet, visitor, matched) == Scan.STOP) {
+                return;
+            }
+        }
+    }
+
+    private static Scan scanSheet(SimpleWorkbookCriterion criterion, Sheet sheet, Visitor visitor, List<Cell> matched) {
+        Scan sheetScan = visitor.visitSheet(sheet);
+        if (sheetScan != Scan.CONTINUE) {
+            return sheetScan;
+        }
+
+        for (Row row : sheet.getRows()) {
+            if (matched != null) {
+                matched.clear();
+            }
+            if (!matches(criterion, row, matched)) {
+                continue;
+            }
+            Scan rowScan = visitor.visitRow(row, matched);
+            if (rowScan == Scan.STOP) {
+                return Scan.STOP;
+            }
+            if (rowScan == Scan.NEXT_SHEET) {
+                break;
+            }
+        }
+        return Scan.CONTINUE;
+    }
+
+    /**
+     * Tests the row against the criteria.
+     * @param criterion the workbook criterion
+     * @param row the row to be tested
+     * @param matched the list collecting the matching cells or null if the test should finish on the first match
+     * @return true if the row matches the criteria
+     */
+    private static boolean matches(SimpleWorkbookCriterion criterion, Row row, List<Cell> matched) {
+        if (criterion.getCriteria().isEmpty()) {
+            if (matched != null) {
+                matched.addAll(row.getCells());
+            }
+            return true;
+        }
+
+        boolean found = false;
+        int contributors = 0;
+
+        for (SimpleSheetCriterion sheetCriterion : criterion.getCriteria()) {
+            if (!sheetCriterion.test(row)) {
+                continue;
+            }
+
+            if (sheetCriterion.getCriteria().isEmpty()) {
+                if (matched == null) {
+                    return true;
+                }
+                found = true;
+                contributors++;
+                matched.addAll(row.getCells());
+                continue;
+            }
+
+            int before = matched == null ? 0 : matched.size();
+            for (Cell cell : row.getCells(sheetCriterion.getProjection())) {
+                for (SimpleRowCriterion rowCriterion : sheetCriterion.getCriteria()) {
+                    if (rowCriterion.test(cell)) {
+                        if (matched == null) {
+                            return true;
                         }
+                        found = true;
+                        matched.add(cell);
+                        break;
                     }
                 }
             }
+            if (matched != null && matched.size() > before) {
+                contributors++;
+            }
         }
 
-        return cells;
+        if (contributors > 1) {
+            Collection<Cell> unique = new LinkedHashSet<Cell>(matched);
+            matched.clear();
+            matched.addAll(unique);
+        }
+
+        return found;
     }
 
-    private Collection<Row> getRowsInternal(int currentMax) {
-        Collection<Row> rows = new LinkedHashSet<Row>();
-        SimpleWorkbookCriterion criterion = new SimpleWorkbookCriterion();
-        workbookCriterion.accept(criterion);
+    private Collection<Cell> getCellsInternal(int currentMax) {
+        Collection<Cell> cells = new LinkedHashSet<Cell>();
+        scan(new Visitor() {
+            @Override
+            public boolean needsCells() {
+                return true;
+            }
 
-        for (Sheet sheet : workbook.getSheets()) {
-            if (criterion.test(sheet)) {
-                rows_loop:
-                for (Row row : sheet.getRows()) {
-                    if (criterion.getCriteria().isEmpty()) {
-                        rows.add(row);
-                        if (rows.size() >= currentMax) {
-                            return rows;
-                        }
-                    } else {
-                        for (SimpleSheetCriterion sheetCriterion : criterion.getCriteria()) {
-                            if (sheetCriterion.test(row)) {
-                                if (sheetCriterion.getCriteria().isEmpty()) {
-                                    rows.add(row);
-                                    if (rows.size() >= currentMax) {
-                                        return rows;
-                                    }
-                                } else {
-                                    for (Cell cell : row.getCells()) {
-                                        for (SimpleRowCriterion rowCriterion : sheetCriterion.getCriteria()) {
-                                            if (rowCriterion.test(cell)) {
-                                                rows.add(row);
-                                                if (rows.size() >= currentMax) {
-                                                    return rows;
-                                                }
-                                                continue rows_loop;
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
+            @Override
+            public Scan visitRow(Row row, List<Cell> matched) {
+                for (Cell cell : matched) {
+                    cells.add(cell);
+                    if (cells.size() >= currentMax) {
+                        return Scan.STOP;
                     }
                 }
+                return Scan.CONTINUE;
             }
-        }
+        });
+        return cells;
+    }
 
+    private Collection<Row> getRowsInternal(int currentMax) {
+        Collection<Row> rows = new LinkedHashSet<Row>();
+        scan(new Visitor() {
+            @Override
+            public boolean needsCells() {
+                return false;
+            }
+
+            @Override
+            public Scan visitRow(Row row, List<Cell> matched) {
+                rows.add(row);
+                return rows.size() >= currentMax ? Scan.STOP : Scan.CONTINUE;
+            }
+        });
         return rows;
     }
 
     private Collection<Sheet> getSheetsInternal(int currentMax) {
         Collection<Sheet> sheets = new LinkedHashSet<Sheet>();
-        SimpleWorkbookCriterion criterion = new SimpleWorkbookCriterion();
-        workbookCriterion.accept(criterion);
+        scan(new Visitor() {
+            @Override
+            public boolean needsCells() {
+                return false;
+            }
 
-        sheets_loop:
-        for (Sheet sheet : workbook.getSheets()) {
-            if (criterion.test(sheet)) {
+            @Override
+            public Scan visitSheet(Sheet sheet) {
                 if (sheet.getRows().isEmpty()) {
                     sheets.add(sheet);
-                    if (sheets.size() >= currentMax) {
-                        return sheets;
-                    }
-                } else {
-                    for (Row row : sheet.getRows()) {
-                        if (criterion.getCriteria().isEmpty()) {
-                            sheets.add(sheet);
-                            if (sheets.size() >= currentMax) {
-                                return sheets;
-                            }
-                        } else {
-                            for (SimpleSheetCriterion sheetCriterion : criterion.getCriteria()) {
-                                if (sheetCriterion.test(row)) {
-                                    if (sheetCriterion.getCriteria().isEmpty()) {
-                                        sheets.add(sheet);
-                                        if (sheets.size() >= currentMax) {
-                                            return sheets;
-                                        }
-                                    } else {
-                                        for (Cell cell : row.getCells()) {
-                                            for (SimpleRowCriterion rowCriterion : sheetCriterion.getCriteria()) {
-                                                if (rowCriterion.test(cell)) {
-                                                    sheets.add(sheet);
-                                                    if (sheets.size() >= currentMax) {
-                                                        return sheets;
-                                                    }
-                                                    continue sheets_loop;
-                                                }
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
+                    return sheets.size() >= currentMax ? Scan.STOP : Scan.NEXT_SHEET;
                 }
+                return Scan.CONTINUE;
             }
-        }
 
+            @Override
+            public Scan visitRow(Row row, List<Cell> matched) {
+                sheets.add(row.getSheet());
+                return sheets.size() >= currentMax ? Scan.STOP : Scan.NEXT_SHEET;
+            }
+        });
         return sheets;
     }
 
+    /**
+     * Collects the matching cells into the bounded heaps. In parallel mode every accepted sheet is scanned into its
+     * own heap and the heaps are merged at the end.
+     */
+    List<Cell> getOrderedCells(Comparator<? super Cell> comparator, int limit, boolean parallel) {
+        SimpleWorkbookCriterion criterion = createCriterion();
+
+        List<Sheet> sheets = new ArrayList<Sheet>();
+        for (Sheet sheet : workbook.getSheets()) {
+            if (criterion.test(sheet)) {
+                sheets.add(sheet);
+            }
+        }
+
+        if (!parallel || sheets.size() < 2) {
+            BoundedCellHeap heap = new BoundedCellHeap(comparator, limit);
+            for (int i = 0; i < sheets.size(); i++) {
+                collect(criterion, sheets.get(i), i, heap);
+            }
+            return heap.toList();
+        }
+
+        List<BoundedCellHeap> heaps = IntStream.range(0, sheets.size()).parallel().mapToObj(i -> {
+            BoundedCellHeap heap = new BoundedCellHeap(comparator, limit);
+            collect(criterion, sheets.get(i), i, heap);
+            return heap;
+        }).collect(Collectors.toList());
+
+        BoundedCellHeap merged = new BoundedCellHeap(comparator, limit);
+        for (BoundedCellHeap heap : heaps) {
+            merged.addAll(heap);
+        }
+        return merged.toList();
+    }
+
+    private static void collect(SimpleWorkbookCriterion criterion, Sheet sheet, int ordinal, BoundedCellHeap heap) {
+        scanSheet(criterion, sheet, new Visitor() {
+            @Override
+            public boolean needsCells() {
+                return true;
+            }
+
+            @Override
+            public Scan visitRow(Row row, List<Cell> matched) {
+                for (Cell cell : matched) {
+                    heap.add(cell, ordinal);
+                }
+                return Scan.CONTINUE;
+            }
+        }, new ArrayList<Cell>());
+    }
+
+    @Override
+    public OrderedSpreadsheetCriteriaResult orderBy(Comparator<? super Cell> comparator) {
+        return new SimpleOrderedSpreadsheetCriteriaResult(this, comparator, max, false);
+    }
+
+    @Override
+    public ColumnProjection getColumnProjection() {
+        return createCriterion().getProjection();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Cell> action) {
+        int[] cells = new int[1];
+        scan(new Visitor() {
+            @Override
+            public boolean needsCells() {
+                return true;
+            }
+
+            @Override
+            public Scan visitRow(Row row, List<Cell> matched) {
+                for (Cell cell : matched) {
+                    action.accept(cell);
+                    if (++cells[0] >= max) {
+                        return Scan.STOP;
+                    }
+                }
+                return Scan.CONTINUE;
+            }
+        });
+    }
+
+    @Override
+    public void forEachRow(Consumer<? super Row> action) {
+        int[] rows = new int[1];
+        scan(new Visitor() {
+            @Override
+            public boolean needsCells() {
+                return false;
+            }
+
+            @Override
+            public Scan visitRow(Row row, List<Cell> matched) {
+                action.accept(row);
+                return ++rows[0] >= max ? Scan.STOP : Scan.CONTINUE;
+            }
+        });
+    }
+
     @Override
     public Collection<Cell> getCells() {
         return getCellsInternal(max);
@@ -222,4 +385,4 @@ final class SimpleSpreadsheetCriteriaResult extends AbstractSpreadsheetCriteriaR
         return null;
     }
 
-}
\ No newline at end of file
+}
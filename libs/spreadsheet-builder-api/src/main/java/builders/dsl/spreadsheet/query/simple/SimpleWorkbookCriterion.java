@@ -17,6 +17,7 @@
  */
 package builders.dsl.spreadsheet.query.simple;
 
+import builders.dsl.spreadsheet.api.ColumnProjection;
 import builders.dsl.spreadsheet.api.Sheet;
 import builders.dsl.spreadsheet.query.api.SheetCriterion;
 import builders.dsl.spreadsheet.query.api.WorkbookCriterion;
@@ -67,6 +68,17 @@ final class SimpleWorkbookCriterion extends AbstractCriterion<Sheet, WorkbookCri
         return Collections.unmodifiableCollection(criteria);
     }
 
+    ColumnProjection getProjection() {
+        if (criteria.isEmpty()) {
+            return ColumnProjection.ALL;
+        }
+        ColumnProjection projection = ColumnProjection.NONE;
+        for (SimpleSheetCriterion criterion : criteria) {
+            projection = projection.union(criterion.getProjection());
+        }
+        return projection;
+    }
+
     @Override
     WorkbookCriterion newDisjointCriterionInstance() {
         return new SimpleWorkbookCriterion(true);
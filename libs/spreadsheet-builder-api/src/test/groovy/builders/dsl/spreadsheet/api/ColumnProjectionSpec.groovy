@@ -0,0 +1,51 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.api
+
+import spock.lang.Specification
+
+class ColumnProjectionSpec extends Specification {
+
+    void 'ranges are merged'() {
+        expect:
+            ColumnProjection.of(3, 1, 2, 7).toString() == 'ColumnProjection[1-3, 7]'
+            ColumnProjection.range(5, 10).union(ColumnProjection.range(1, 4)) == ColumnProjection.range(1, 10)
+            ColumnProjection.of(1).union(ColumnProjection.ALL).all
+            ColumnProjection.NONE.union(ColumnProjection.of(4)) == ColumnProjection.of(4)
+    }
+
+    void 'ranges are intersected'() {
+        expect:
+            ColumnProjection.range(1, 5).intersect(ColumnProjection.of(3, 7)) == ColumnProjection.of(3)
+            ColumnProjection.ALL.intersect(ColumnProjection.of(2)) == ColumnProjection.of(2)
+            ColumnProjection.of(1).intersect(ColumnProjection.of(2)).empty
+    }
+
+    void 'columns are iterated within bounds'() {
+        given:
+            List<Integer> columns = []
+        when:
+            ColumnProjection.of(1, 3, 4, 9).forEachColumn(2, 5) { int column -> columns << column }
+        then:
+            columns == [3, 4]
+            ColumnProjection.range(2, 4).contains(3)
+            !ColumnProjection.range(2, 4).contains(5)
+            ColumnProjection.ALL.contains(16384)
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.api
+
+import builders.dsl.spreadsheet.api.Cell
+import builders.dsl.spreadsheet.api.Row
+import builders.dsl.spreadsheet.api.Sheet
+import spock.lang.Specification
+
+class SpreadsheetCriteriaResultSpec extends Specification {
+
+    void 'cells are ordered by the default implementation'() {
+        given:
+            List<Cell> cells = [3, 1, 2, 1, 5].withIndex().collect { Integer value, int index ->
+                Stub(Cell) {
+                    getValue() >> value
+                    getColumn() >> index + 1
+                }
+            }
+            SpreadsheetCriteriaResult result = new AbstractSpreadsheetCriteriaResult() {
+                Collection<Cell> getCells() { cells }
+                Collection<Row> getRows() { [] }
+                Collection<Sheet> getSheets() { [] }
+                Cell getCell() { cells.first() }
+                Row getRow() { null }
+                Sheet getSheet() { null }
+            }
+            Comparator<Cell> byValue = Comparator.comparing { Cell cell -> cell.value as Integer }
+        expect:
+            result.orderBy(byValue).cells*.value == [1, 1, 2, 3, 5]
+            result.orderBy(byValue).limit(3).cells*.column == [2, 4, 3]
+            result.orderBy(byValue.reversed()).limit(2).parallel().cells*.value == [5, 3]
+            result.orderBy(byValue).cell.column == 2
+            result.orderBy(byValue).limit(0).cells.empty
+    }
+
+}
@@ -33,6 +33,7 @@ import builders.dsl.spreadsheet.query.api.SheetCriterion;
 import builders.dsl.spreadsheet.query.api.SpreadsheetCriteria;
 import builders.dsl.spreadsheet.query.api.SpreadsheetCriteriaResult;
 import builders.dsl.spreadsheet.query.api.WorkbookCriterion;
+import builders.dsl.spreadsheet.query.poi.MultiSpreadsheetQuery;
 import builders.dsl.spreadsheet.query.poi.PoiSpreadsheetCriteria;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -47,11 +48,13 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @SuppressWarnings({"java:S106", "java:S1192", "java:S3776"})
 public final class SpreadsheetCli {
@@ -62,6 +65,9 @@ public final class SpreadsheetCli {
     private static final String NUMBER = "number";
     private static final String COLUMN = "column";
     private static final String VALUE = "value";
+    private static final String GLOB = "--glob";
+    private static final String CONCURRENCY = "--concurrency";
+    private static final String GLOB_USAGE = "query --glob <pattern> <criteria.json|yaml|yml> [--concurrency <n>]";
 
     private SpreadsheetCli() {
         // utility class
@@ -83,6 +89,10 @@ public final class SpreadsheetCli {
                 create(Path.of(args[1]), new File(args[2]));
                 break;
             case "query":
+                if (args.length > 1 && GLOB.equals(args[1])) {
+                    queryGlob(args);
+                    break;
+                }
                 requireArgumentCount(args, 3, "query <workbook.xlsx> <query.json|yaml|yml>");
                 query(new File(args[1]), Path.of(args[2]));
                 break;
@@ -97,9 +107,11 @@ public final class SpreadsheetCli {
         System.out.println("Usage:");
         System.out.println("  create <input.json|yaml|yml> <output.xlsx>");
         System.out.println("  query <workbook.xlsx> <criteria.json|yaml|yml>");
+        System.out.println("  " + GLOB_USAGE);
         System.out.println();
         System.out.println("The create command accepts the data format supported by spreadsheet-builder-data.");
         System.out.println("The query command accepts a serialized criteria tree: sheets, rows, cells, page, and or.");
+        System.out.println("With --glob every matching workbook is queried concurrently and one JSON line is printed per file.");
     }
 
     private static void requireArgumentCount(String[] args, int count, String usage) {
@@ -122,10 +134,54 @@ public final class SpreadsheetCli {
 
     private static void query(File workbookFile, Path queryFile) throws IOException {
         Map<String, Object> serializedCriteria = readMap(queryFile);
-        SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFile(workbookFile);
-        SpreadsheetCriteriaResult result = criteria.query(workbook -> applyWorkbook(workbook, serializedCriteria));
+        try (SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFile(workbookFile)) {
+            SpreadsheetCriteriaResult result = criteria.query(workbook -> applyWorkbook(workbook, serializedCriteria));
+            ObjectMapper json = new ObjectMapper();
+            System.out.println(json.writerWithDefaultPrettyPrinter().writeValueAsString(resultMap(result)));
+        }
+    }
+
+    private static void queryGlob(String[] args) throws IOException {
+        if (args.length != 4 && !(args.length == 6 && CONCURRENCY.equals(args[4]))) {
+            throw new IllegalArgumentException("Usage: " + GLOB_USAGE);
+        }
+        int concurrency = args.length == 6 ? parseConcurrency(args[5]) : 0;
+        Map<String, Object> serializedCriteria = readMap(Path.of(args[3]));
+        MultiSpreadsheetQuery query = MultiSpreadsheetQuery.glob(args[2]);
+        if (concurrency > 0) {
+            query = query.concurrency(concurrency);
+        }
+
         ObjectMapper json = new ObjectMapper();
-        System.out.println(json.writerWithDefaultPrettyPrinter().writeValueAsString(resultMap(result)));
+        try (Stream<MultiSpreadsheetQuery.FileResult<Map<String, Object>>> results = query.query(
+            workbook -> applyWorkbook(workbook, serializedCriteria),
+            SpreadsheetCli::resultMap
+        )) {
+            Iterator<MultiSpreadsheetQuery.FileResult<Map<String, Object>>> iterator = results.iterator();
+            while (iterator.hasNext()) {
+                MultiSpreadsheetQuery.FileResult<Map<String, Object>> result = iterator.next();
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("file", result.getFile().getPath());
+                if (result.isFailed()) {
+                    line.put("error", String.valueOf(result.getError()));
+                } else {
+                    line.putAll(result.getValue());
+                }
+                System.out.println(json.writeValueAsString(line));
+            }
+        }
+    }
+
+    private static int parseConcurrency(String value) {
+        try {
+            int concurrency = Integer.parseInt(value);
+            if (concurrency > 0) {
+                return concurrency;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException(CONCURRENCY + " must be a positive number but was " + value + System.lineSeparator() + "Usage: " + GLOB_USAGE);
     }
 
     private static void applyWorkbook(WorkbookCriterion workbook, Map<String, Object> spec) {
@@ -163,6 +163,49 @@ sheets:
         result.rows*.row == [3, 4]
     }
 
+    void 'queries many workbooks matching a glob pattern'() {
+        given:
+        workbook()
+        workbook()
+        File query = new File(temporaryDirectory, 'query.yml')
+        query.text = '''\
+sheets:
+- name: People
+  rows:
+  - cells:
+    - column: C
+      value: Prague
+'''
+
+        when:
+        String output = captureStandardOutput {
+            SpreadsheetCli.run('query', '--glob', "${temporaryDirectory.absolutePath}/people-*.xlsx".toString(), query.absolutePath, '--concurrency', '2')
+        }
+        List<Map> lines = output.readLines().collect { new ObjectMapper().readValue(it, Map) }
+
+        then:
+        lines.size() == 2
+        lines*.file.every { it.endsWith('.xlsx') }
+        lines.every { it.cells*.row == [2, 4] }
+    }
+
+    void 'rejects invalid concurrency of the glob query'() {
+        given:
+        File query = new File(temporaryDirectory, 'query.yml')
+        query.text = 'sheets: []'
+
+        when:
+        SpreadsheetCli.run('query', '--glob', "${temporaryDirectory.absolutePath}/people-*.xlsx".toString(), query.absolutePath, '--concurrency', concurrency)
+
+        then:
+        IllegalArgumentException e = thrown(IllegalArgumentException)
+        e.message.contains('--concurrency')
+        e.message.contains('Usage: query --glob')
+
+        where:
+        concurrency << ['two', '0', '-1', '']
+    }
+
     private static String captureStandardOutput(Closure<?> action) {
         PrintStream original = System.out
         ByteArrayOutputStream buffer = new ByteArrayOutputStream()
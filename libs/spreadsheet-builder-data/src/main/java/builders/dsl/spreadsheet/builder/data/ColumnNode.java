@@ -0,0 +1,53 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.data;
+
+import builders.dsl.spreadsheet.api.Keywords;
+import builders.dsl.spreadsheet.builder.api.ColumnDefinition;
+
+class ColumnNode extends AbstractNode implements ColumnDefinition {
+
+    ColumnNode(int column) {
+        node.set("column", column);
+    }
+
+    @Override
+    public ColumnDefinition width(double width) {
+        node.set("width", width);
+        return this;
+    }
+
+    @Override
+    public ColumnDefinition width(Keywords.Auto auto) {
+        node.set("width", "auto");
+        return this;
+    }
+
+    @Override
+    public ColumnDefinition style(String name) {
+        node.set("style", name);
+        return this;
+    }
+
+    @Override
+    public ColumnDefinition hide() {
+        node.set("hidden", true);
+        return this;
+    }
+
+}
@@ -18,6 +18,7 @@
 package builders.dsl.spreadsheet.builder.data;
 
 import builders.dsl.spreadsheet.api.Keywords;
+import builders.dsl.spreadsheet.builder.api.ColumnDefinition;
 import builders.dsl.spreadsheet.builder.api.PageDefinition;
 import builders.dsl.spreadsheet.builder.api.RowDefinition;
 import builders.dsl.spreadsheet.builder.api.SheetDefinition;
@@ -59,6 +60,25 @@ class SheetNode extends AbstractNode implements SheetDefinition {
         return this;
     }
 
+    @Override
+    public SheetDefinition column(int column, Consumer<ColumnDefinition> columnDefinition) {
+        ColumnNode columnNode = new ColumnNode(column);
+        columnDefinition.accept(columnNode);
+        node.add("columns", columnNode);
+        return this;
+    }
+
+    @Override
+    public SheetDefinition formula(int column, int firstRow, int lastRow, String formula) {
+        MapNode columnFormula = new MapNode();
+        columnFormula.set("column", column);
+        columnFormula.set("first", firstRow);
+        columnFormula.set("last", lastRow);
+        columnFormula.set("formula", formula);
+        node.add("formulas", columnFormula);
+        return this;
+    }
+
     @Override
     public SheetDefinition group(Consumer<SheetDefinition> insideGroupDefinition) {
         SheetNode groupNode = new SheetNode();
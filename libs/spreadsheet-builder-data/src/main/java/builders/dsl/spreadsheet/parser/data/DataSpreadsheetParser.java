@@ -25,6 +25,7 @@ import builders.dsl.spreadsheet.api.Keywords;
 import builders.dsl.spreadsheet.builder.api.BorderDefinition;
 import builders.dsl.spreadsheet.builder.api.CellDefinition;
 import builders.dsl.spreadsheet.builder.api.CellStyleDefinition;
+import builders.dsl.spreadsheet.builder.api.ColumnDefinition;
 import builders.dsl.spreadsheet.builder.api.CommentDefinition;
 import builders.dsl.spreadsheet.builder.api.DimensionModifier;
 import builders.dsl.spreadsheet.builder.api.FontDefinition;
@@ -63,6 +64,8 @@ import java.util.regex.Pattern;
 public class DataSpreadsheetParser {
 
     private static final List<String> REQUIRES_NAME = Collections.singletonList("name");
+    private static final List<String> COLUMN_PROPERTIES = Collections.singletonList("column");
+    private static final List<String> COLUMN_FORMULA_PROPERTIES = Arrays.asList("column", "first", "last", "formula");
     private static final Pattern DIMENSION_IN_POINTS = Pattern.compile("(\\d+)\\s?(p(oin)?ts?)?");
     private static final Pattern DIMENSION_IN_CM = Pattern.compile("(\\d+)\\s?cm");
     private static final Pattern DIMENSION_IN_INCHES = Pattern.compile("(\\d+)\\s?in(ch(es)?)?");
@@ -232,6 +235,12 @@ public class DataSpreadsheetParser {
                 case "freeze":
                     handleFreeze(s, entryPath, value);
                     break;
+                case "columns":
+                    eachItemAsMap(value, entryPath, COLUMN_PROPERTIES, (column, itemPath) -> handleColumn(s, itemPath, column));
+                    break;
+                case "formulas":
+                    eachItemAsMap(value, entryPath, COLUMN_FORMULA_PROPERTIES, (formula, itemPath) -> handleColumnFormula(s, itemPath, formula));
+                    break;
                 case "page":
                     withMap(value, entryPath, page -> s.page(p -> handlePage(p, entryPath, page)));
                     break;
@@ -332,6 +341,50 @@ public class DataSpreadsheetParser {
         }
     }
 
+    private void handleColumn(SheetDefinition s, String path, Map<String, Object> column) {
+        Object columnNumberOrName = column.get("column");
+        Consumer<ColumnDefinition> columnDefinition = c -> handleMap(path, column, (entryPath, key, value) -> {
+            switch (key) {
+                case "width":
+                    if ("auto".equals(value)) {
+                        c.width(Keywords.Auto.AUTO);
+                    } else {
+                        handleNumber(entryPath, value, number -> c.width(number.doubleValue()));
+                    }
+                    break;
+                case "style":
+                    c.style(String.valueOf(value));
+                    break;
+                case "hidden":
+                    ifTrue(entryPath, value, c::hide);
+                    break;
+                case "column":
+                    // handled already
+                    break;
+                default:
+                    throw new InvalidPropertyException("Unknown property: " + key, path, value);
+            }
+        });
+        if (columnNumberOrName instanceof Number) {
+            s.column(((Number) columnNumberOrName).intValue(), columnDefinition);
+        } else {
+            s.column(String.valueOf(columnNumberOrName), columnDefinition);
+        }
+    }
+
+    private void handleColumnFormula(SheetDefinition s, String path, Map<String, Object> formula) {
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger last = new AtomicInteger();
+        handleNumber(path + ".first", formula.get("first"), number -> first.set(number.intValue()));
+        handleNumber(path + ".last", formula.get("last"), number -> last.set(number.intValue()));
+        Object column = formula.get("column");
+        if (column instanceof Number) {
+            s.formula(((Number) column).intValue(), first.get(), last.get(), String.valueOf(formula.get("formula")));
+        } else {
+            s.formula(String.valueOf(column), first.get(), last.get(), String.valueOf(formula.get("formula")));
+        }
+    }
+
     private void handleRow(SheetDefinition s, String path, Map<String, Object> row) {
         if (row.containsKey("group") && row.size() == 1) {
             s.group(group -> eachItemAsMap(row.get("group"), path + "." + "group", Collections.emptyList(), (item, itemPath) -> handleRow(group, itemPath, item)));
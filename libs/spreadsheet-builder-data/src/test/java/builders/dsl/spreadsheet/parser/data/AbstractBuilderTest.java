@@ -118,6 +118,17 @@ public abstract class AbstractBuilderTest {
         assertEquals(1, someCells.getCells().size());
     }
 
+    @Test public void testColumnFormulas() throws Exception {
+        File excel = tmp.newFile(System.currentTimeMillis() + ".xlsx");
+        build(PoiSpreadsheetBuilder.create(excel), "formulas");
+
+        SpreadsheetCriteria matcher = PoiSpreadsheetCriteria.FACTORY.forFile(excel);
+
+        assertEquals("A2*B2", matcher.query(w -> w.sheet("Orders", s -> s.row(2, r -> r.cell("C")))).getCell().getValue());
+        assertEquals("A3*B3", matcher.query(w -> w.sheet("Orders", s -> s.row(3, r -> r.cell("C")))).getCell().getValue());
+        assertEquals("Total", matcher.query(w -> w.sheet("Orders", s -> s.row(1, r -> r.cell("C")))).getCell().getValue());
+    }
+
     @Test public void testBuilderFull() throws IOException, InterruptedException {
         File excel = tmp.newFile(System.currentTimeMillis() + ".xlsx");
         SpreadsheetBuilder builder = PoiSpreadsheetBuilder.create(excel);
@@ -0,0 +1,240 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+/**
+ * Options tuning how {@link PoiSpreadsheetBuilder} produces the workbook.
+ */
+public final class PoiBuilderOptions {
+
+    public static PoiBuilderOptions create() {
+        return new PoiBuilderOptions();
+    }
+
+    private static final int DEFAULT_IMAGE_CONCURRENCY = 8;
+    private static final Duration DEFAULT_IMAGE_TIMEOUT = Duration.ofSeconds(30);
+    private static final int DEFAULT_IMAGE_SIZE_LIMIT = 16 * 1024 * 1024;
+
+    private boolean evaluatingFormulas;
+    private int imageConcurrency = DEFAULT_IMAGE_CONCURRENCY;
+    private Duration imageTimeout = DEFAULT_IMAGE_TIMEOUT;
+    private int imageSizeLimit = DEFAULT_IMAGE_SIZE_LIMIT;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int compressionThreads = 1;
+    private PoiStreamingOptions streaming = PoiStreamingOptions.create();
+    private long heapBudget;
+    private StreamingSwitchListener streamingSwitchListener;
+
+    private PoiBuilderOptions() { }
+
+    /**
+     * Evaluates every formula once the workbook is resolved and stores the result as the cached value of the cell
+     * so readers don't have to recalculate the workbook.
+     *
+     * The formulas of the streaming workbooks are evaluated just before their rows are flushed from the window
+     * so they can only refer to the rows which are still in the window at that time.
+     *
+     * @param evaluate whether the formulas should be evaluated at build time
+     * @return self
+     */
+    public PoiBuilderOptions evaluateFormulas(boolean evaluate) {
+        this.evaluatingFormulas = evaluate;
+        return this;
+    }
+
+    /**
+     * Sets the maximal number of images loaded from files or URLs at the same time. The images are loaded
+     * in the background while the rest of the workbook is being built.
+     *
+     * @param concurrency the maximal number of images loaded at the same time, defaults to 8
+     * @return self
+     */
+    public PoiBuilderOptions imageConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1. Got: " + concurrency);
+        }
+        this.imageConcurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Sets the timeout for connecting to and reading from the image URL.
+     *
+     * @param timeout the timeout for the remote images up to {@link Integer#MAX_VALUE} milliseconds, zero means no
+     *                timeout, defaults to 30 seconds
+     * @return self
+     */
+    public PoiBuilderOptions imageTimeout(Duration timeout) {
+        Objects.requireNonNull(timeout, "Timeout");
+        if (timeout.isNegative() || timeout.compareTo(Duration.ofMillis(Integer.MAX_VALUE)) > 0) {
+            throw new IllegalArgumentException("Timeout must be between 0 and " + Integer.MAX_VALUE + " milliseconds. Got: " + timeout);
+        }
+        this.imageTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * Sets the maximal size of an image loaded from a file or URL. Bigger images fail the build.
+     *
+     * @param bytes the maximal size of the image in bytes, defaults to 16 MiB
+     * @return self
+     */
+    public PoiBuilderOptions imageSizeLimit(int bytes) {
+        if (bytes < 1) {
+            throw new IllegalArgumentException("Size limit must be positive. Got: " + bytes);
+        }
+        this.imageSizeLimit = bytes;
+        return this;
+    }
+
+    /**
+     * Sets the compression level of the parts of the written file. Level <code>0</code> stores the parts
+     * without any compression which is useful for the files processed further by other programs.
+     *
+     * @param level the compression level from <code>0</code> to <code>9</code> or <code>-1</code> for the default level
+     * @return self
+     */
+    public PoiBuilderOptions compressionLevel(int level) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9. Got: " + level);
+        }
+        this.compressionLevel = level;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads compressing the parts of the written file. If more than one thread is used
+     * then large parts such as the sheets are split into blocks which are compressed in parallel.
+     *
+     * @param threads the number of threads compressing the file, defaults to 1
+     * @return self
+     */
+    public PoiBuilderOptions compressionThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1. Got: " + threads);
+        }
+        this.compressionThreads = threads;
+        return this;
+    }
+
+    /**
+     * Sets the options of the streaming workbook such as the size of the window or the storage of the flushed rows.
+     * Used by the builders created with one of the <code>stream</code> methods and by the builders switching
+     * to the streaming mode after crossing the {@link #heapBudget(long)}.
+     *
+     * @param streaming the streaming options
+     * @return self
+     */
+    public PoiBuilderOptions streaming(PoiStreamingOptions streaming) {
+        this.streaming = Objects.requireNonNull(streaming, "Streaming options");
+        return this;
+    }
+
+    /**
+     * Sets the estimated heap size the in-memory workbook may occupy. Once the cells and styles created so far
+     * cross the budget, the current and the remaining sheets continue in the streaming mode configured by
+     * {@link #streaming(PoiStreamingOptions)}. Only used by the builders created with one of the <code>create</code> methods.
+     *
+     * The rows created before the switch stay in memory and can still be changed but auto-sized columns only
+     * measure these rows and the formulas are no longer evaluated.
+     *
+     * @param bytes the estimated heap size in bytes, <code>0</code> disables the switch which is the default
+     * @return self
+     */
+    public PoiBuilderOptions heapBudget(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Heap budget must not be negative. Got: " + bytes);
+        }
+        this.heapBudget = bytes;
+        return this;
+    }
+
+    /**
+     * Sets the listener notified when the workbook switches to the streaming mode after crossing the heap budget.
+     *
+     * @param listener the listener notified about the switch
+     * @return self
+     * @see #heapBudget(long)
+     */
+    public PoiBuilderOptions onSwitchToStreaming(StreamingSwitchListener listener) {
+        this.streamingSwitchListener = Objects.requireNonNull(listener, "Listener");
+        return this;
+    }
+
+    boolean isEvaluatingFormulas() {
+        return evaluatingFormulas;
+    }
+
+    int getImageConcurrency() {
+        return imageConcurrency;
+    }
+
+    Duration getImageTimeout() {
+        return imageTimeout;
+    }
+
+    int getImageSizeLimit() {
+        return imageSizeLimit;
+    }
+
+    int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    int getCompressionThreads() {
+        return compressionThreads;
+    }
+
+    PoiStreamingOptions getStreaming() {
+        return streaming;
+    }
+
+    long getHeapBudget() {
+        return heapBudget;
+    }
+
+    StreamingSwitchListener getStreamingSwitchListener() {
+        return streamingSwitchListener;
+    }
+
+    boolean isDefaultCompression() {
+        return compressionLevel == Deflater.DEFAULT_COMPRESSION && compressionThreads == 1;
+    }
+
+    /**
+     * Listener notified when the workbook switches to the streaming mode.
+     */
+    @FunctionalInterface
+    public interface StreamingSwitchListener {
+
+        /**
+         * Called once the estimated heap size of the workbook crosses the budget.
+         *
+         * @param sheet the name of the sheet being built
+         * @param row the number of the first row written in the streaming mode
+         * @param estimatedSize the estimated heap size of the cells and styles created before the switch
+         */
+        void switched(String sheet, int row, long estimatedSize);
+
+    }
+
+}
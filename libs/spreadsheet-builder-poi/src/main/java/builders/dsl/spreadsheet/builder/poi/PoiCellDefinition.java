@@ -82,7 +82,9 @@ class PoiCellDefinition extends AbstractCellDefinition {
 
     @Override
     protected AbstractPendingFormula createPendingFormula(String formula) {
-        return new PoiPendingFormula(this, formula);
+        PoiPendingFormula pendingFormula = new PoiPendingFormula(this, formula);
+        getRow().getSheet().getWorkbook().addStreamedPending(cell.getRow(), pendingFormula);
+        return pendingFormula;
     }
 
     @Override
@@ -114,7 +116,7 @@ class PoiCellDefinition extends AbstractCellDefinition {
 
     @Override
     protected FontDefinition createFontDefinition() {
-        return new PoiFontDefinition(this.getRow().getSheet().getWorkbook().getWorkbook());
+        return new PoiFontDefinition();
     }
 
     @Override
@@ -196,19 +198,19 @@ class PoiCellDefinition extends AbstractCellDefinition {
             CreationHelper factory = wb.getCreationHelper();
             RichTextString text = factory.createRichTextString(Utils.join(texts, ""));
 
+            PoiFontRegistry fonts = getRow().getSheet().getWorkbook().getFonts();
             for (RichTextPart richTextPart : richTextParts) {
                 if (richTextPart.getText() != null && richTextPart.getText().length() > 0 && richTextPart.getFont() != null) {
-                    text.applyFont(richTextPart.getStart(), richTextPart.getEnd(), ((PoiFontDefinition)richTextPart.getFont()).getFont());
+                    text.applyFont(richTextPart.getStart(), richTextPart.getEnd(), fonts.getFont((PoiFontDefinition) richTextPart.getFont()));
                 }
             }
 
             cell.setCellValue(text);
         }
 
-        if ((getColspan() > 1 || getRowspan() > 1) && cellStyle != null && cellStyle instanceof PoiCellStyleDefinition) {
-            ((PoiCellStyleDefinition) cellStyle).setBorderTo(getCellRangeAddress(), getRow().getSheet());
-            // XXX: setting border messes up the style of the cell
-            ((PoiCellStyleDefinition) cellStyle).assignTo(this);
+        if ((getColspan() > 1 || getRowspan() > 1) && cellStyle instanceof PoiCellStyleDefinition) {
+            // the cell sheet keeps the rows created before the workbook switched to the streaming mode
+            getRow().getSheet().getWorkbook().getMergedBorders().apply(((PoiCellStyleDefinition) cellStyle).getStyle(), getCellRangeAddress(), cell.getSheet());
         }
 
     }
@@ -24,8 +24,6 @@ import builders.dsl.spreadsheet.impl.AbstractBorderDefinition;
 import builders.dsl.spreadsheet.impl.AbstractCellDefinition;
 import builders.dsl.spreadsheet.impl.AbstractCellStyleDefinition;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.ss.util.RegionUtil;
 import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFColor;
@@ -43,6 +41,11 @@ class PoiCellStyleDefinition extends AbstractCellStyleDefinition {
         if (cell.getCell().getCellStyle().equals(workbook.getCellStyleAt(0))) {
             style = (XSSFCellStyle) workbook.createCellStyle();
             cell.getCell().setCellStyle(style);
+        } else if (cell.getRow().getSheet().isColumnStyle(cell.getCell().getCellStyle())) {
+            // the column style is shared so the cell needs its own copy
+            style = (XSSFCellStyle) workbook.createCellStyle();
+            style.cloneStyleFrom(cell.getCell().getCellStyle());
+            cell.getCell().setCellStyle(style);
         } else {
             style = (XSSFCellStyle) cell.getCell().getCellStyle();
         }
@@ -134,7 +137,12 @@ class PoiCellStyleDefinition extends AbstractCellStyleDefinition {
 
     @Override
     protected FontDefinition createFont() {
-        return new PoiFontDefinition(getWorkbook().getWorkbook(), style);
+        return new PoiFontDefinition();
+    }
+
+    @Override
+    protected void doFont(FontDefinition font) {
+        style.setFont(getWorkbook().getFonts().getFont((PoiFontDefinition) font));
     }
 
     @Override
@@ -229,15 +237,8 @@ class PoiCellStyleDefinition extends AbstractCellStyleDefinition {
         return new XSSFColor(new byte[]{red, green, blue}, INDEXED_COLOR_MAP);
     }
 
-    void setBorderTo(CellRangeAddress address, PoiSheetDefinition sheet) {
-        RegionUtil.setBorderBottom(style.getBorderBottom(), address, sheet.getSheet());
-        RegionUtil.setBorderLeft(style.getBorderLeft(), address, sheet.getSheet());
-        RegionUtil.setBorderRight(style.getBorderRight(), address, sheet.getSheet());
-        RegionUtil.setBorderTop(style.getBorderTop(), address, sheet.getSheet());
-        RegionUtil.setBottomBorderColor(style.getBottomBorderColor(), address, sheet.getSheet());
-        RegionUtil.setLeftBorderColor(style.getLeftBorderColor(), address, sheet.getSheet());
-        RegionUtil.setRightBorderColor(style.getRightBorderColor(), address, sheet.getSheet());
-        RegionUtil.setTopBorderColor(style.getTopBorderColor(), address, sheet.getSheet());
+    XSSFCellStyle getStyle() {
+        return style;
     }
 
     private final XSSFCellStyle style;
@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import builders.dsl.spreadsheet.builder.api.ColumnDefinition;
+import builders.dsl.spreadsheet.impl.AbstractCellStyleDefinition;
+import builders.dsl.spreadsheet.impl.AbstractColumnDefinition;
+
+class PoiColumnDefinition extends AbstractColumnDefinition {
+
+    PoiColumnDefinition(PoiSheetDefinition sheet, int zeroBasedColumn) {
+        super(sheet, zeroBasedColumn);
+        this.sheet = sheet;
+    }
+
+    @Override
+    public ColumnDefinition width(double width) {
+        sheet.getSheet().setColumnWidth(getColumn(), (int) Math.round(width * 255D));
+        return this;
+    }
+
+    @Override
+    public ColumnDefinition hide() {
+        sheet.getSheet().setColumnHidden(getColumn(), true);
+        return this;
+    }
+
+    @Override
+    protected void doStyle(AbstractCellStyleDefinition style) {
+        if (!(style instanceof PoiCellStyleDefinition)) {
+            throw new IllegalArgumentException("Unsupported style: " + style);
+        }
+        sheet.setColumnStyle(getColumn(), ((PoiCellStyleDefinition) style).getStyle());
+    }
+
+    private final PoiSheetDefinition sheet;
+}
@@ -0,0 +1,130 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaParsingWorkbook;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaRenderingWorkbook;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.SharedFormula;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFEvaluationWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCellFormula;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellFormulaType;
+
+/**
+ * Column formula is a single relative formula declared for the range of rows in one column. The formula is parsed
+ * only once. If possible it is written as a shared formula, otherwise the parsed formula is shifted and rendered for
+ * each row.
+ */
+class PoiColumnFormula {
+
+    PoiColumnFormula(PoiSheetDefinition sheet, int column, int firstRow, int lastRow, String formula) {
+        this.sheet = sheet;
+        this.range = new CellRangeAddress(firstRow, lastRow, column, column);
+        this.formula = formula;
+        this.workbook = createEvaluationWorkbook(sheet.getSheet().getWorkbook());
+        this.ptgs = FormulaParser.parse(formula, workbook, FormulaType.CELL, sheet.getSheet().getWorkbook().getSheetIndex(sheet.getSheet()), firstRow);
+    }
+
+    boolean covers(Row row) {
+        return row.getRowNum() >= range.getFirstRow() && row.getRowNum() <= range.getLastRow();
+    }
+
+    /**
+     * Writes the formula as a shared formula into every row of the range. The master cell in the first row holds
+     * the formula and the range, the other cells only refer to the master cell by the shared index.
+     *
+     * @param sharedIndex the shared index unique within the sheet
+     */
+    void applyShared(long sharedIndex) {
+        for (int i = range.getFirstRow(); i <= range.getLastRow(); i++) {
+            Row row = sheet.getSheet().getRow(i);
+            if (row == null) {
+                row = sheet.getSheet().createRow(i);
+            }
+            CTCell cell = ((XSSFCell) getOrCreateCell(row)).getCTCell();
+            if (cell.isSetF()) {
+                cell.unsetF();
+            }
+            if (cell.isSetV()) {
+                cell.unsetV();
+            }
+            if (cell.isSetT()) {
+                cell.unsetT();
+            }
+            CTCellFormula f = cell.addNewF();
+            f.setT(STCellFormulaType.SHARED);
+            f.setSi(sharedIndex);
+            if (i == range.getFirstRow()) {
+                f.setRef(range.formatAsString());
+                f.setStringValue(formula);
+            }
+        }
+    }
+
+    /**
+     * Writes the formula shifted to the given row as an ordinary formula.
+     *
+     * @param row the row within the range
+     */
+    void apply(Row row) {
+        Ptg[] shifted = new SharedFormula(SpreadsheetVersion.EXCEL2007).convertSharedFormulas(ptgs, row.getRowNum() - range.getFirstRow(), 0);
+        Cell cell = getOrCreateCell(row);
+        cell.setCellFormula(FormulaRenderer.toFormulaString((FormulaRenderingWorkbook) workbook, shifted));
+        sheet.getWorkbook().addFormulaCell(cell);
+    }
+
+    private Cell getOrCreateCell(Row row) {
+        Cell cell = row.getCell(range.getFirstColumn());
+        if (cell != null) {
+            return cell;
+        }
+        cell = row.createCell(range.getFirstColumn());
+        CellStyle columnStyle = sheet.getColumnStyle(range.getFirstColumn());
+        if (columnStyle != null) {
+            cell.setCellStyle(columnStyle);
+        }
+        return cell;
+    }
+
+    private static FormulaParsingWorkbook createEvaluationWorkbook(Workbook workbook) {
+        if (workbook instanceof SXSSFWorkbook) {
+            return SXSSFEvaluationWorkbook.create((SXSSFWorkbook) workbook);
+        }
+        return XSSFEvaluationWorkbook.create((XSSFWorkbook) workbook);
+    }
+
+    private final PoiSheetDefinition sheet;
+    private final CellRangeAddress range;
+    private final String formula;
+    private final FormulaParsingWorkbook workbook;
+    private final Ptg[] ptgs;
+}
@@ -21,26 +21,19 @@ import builders.dsl.spreadsheet.api.Color;
 import builders.dsl.spreadsheet.api.FontStyle;
 import builders.dsl.spreadsheet.builder.api.FontDefinition;
 import org.apache.poi.ss.usermodel.FontUnderline;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFFont;
 
 import java.util.EnumSet;
 
+/**
+ * Collects the attributes of the font. The actual font is obtained from the {@link PoiFontRegistry} once
+ * the definition is complete so the fonts with the same attributes are shared.
+ */
 class PoiFontDefinition implements FontDefinition {
 
-    PoiFontDefinition(Workbook workbook) {
-        font = (XSSFFont) workbook.createFont();
-    }
-
-    PoiFontDefinition(Workbook workbook, XSSFCellStyle style) {
-        font = (XSSFFont) workbook.createFont();
-        style.setFont(font);
-    }
-
     @Override
     public PoiFontDefinition color(String hexColor) {
-        font.setColor(PoiCellStyleDefinition.parseColor(hexColor));
+        this.color = hexColor;
         return this;
     }
 
@@ -52,44 +45,61 @@ class PoiFontDefinition implements FontDefinition {
 
     @Override
     public PoiFontDefinition size(int size) {
-        font.setFontHeightInPoints((short) size);
+        this.size = size;
         return this;
     }
 
     @Override
     public PoiFontDefinition name(String name) {
-        font.setFontName(name);
+        this.name = name;
         return this;
     }
 
     @Override
     public PoiFontDefinition style(FontStyle first, FontStyle... other) {
-        EnumSet<FontStyle> enumSet = EnumSet.of(first, other);
-        if (enumSet.contains(FontStyle.ITALIC)){
-            font.setItalic(true);
-        }
+        styles.addAll(EnumSet.of(first, other));
+        return this;
+    }
 
+    /**
+     * @return the key which is the same for all the definitions producing the same font
+     */
+    String getKey() {
+        return name + ":" + size + ":" + (color == null ? null : color.toUpperCase()) + ":" + styles;
+    }
 
-        if (enumSet.contains(FontStyle.BOLD)){
-            font.setBold(true);
+    void applyTo(XSSFFont font) {
+        if (name != null) {
+            font.setFontName(name);
         }
 
+        if (size > 0) {
+            font.setFontHeightInPoints((short) size);
+        }
 
-        if (enumSet.contains(FontStyle.STRIKEOUT)){
-            font.setStrikeout(true);
+        if (color != null) {
+            font.setColor(PoiCellStyleDefinition.parseColor(color));
         }
 
+        if (styles.contains(FontStyle.ITALIC)) {
+            font.setItalic(true);
+        }
 
-        if (enumSet.contains(FontStyle.UNDERLINE)){
-            font.setUnderline(FontUnderline.SINGLE);
+        if (styles.contains(FontStyle.BOLD)) {
+            font.setBold(true);
         }
 
-        return this;
-    }
+        if (styles.contains(FontStyle.STRIKEOUT)) {
+            font.setStrikeout(true);
+        }
 
-    XSSFFont getFont() {
-        return font;
+        if (styles.contains(FontStyle.UNDERLINE)) {
+            font.setUnderline(FontUnderline.SINGLE);
+        }
     }
 
-    private final XSSFFont font;
+    private final EnumSet<FontStyle> styles = EnumSet.noneOf(FontStyle.class);
+    private String name;
+    private String color;
+    private int size;
 }
@@ -0,0 +1,51 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the fonts created by the builder. Each distinct combination of name, size, color and styles
+ * is stored in the workbook only once and shared by all the cell styles and rich text runs using it.
+ */
+class PoiFontRegistry {
+
+    PoiFontRegistry(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * Returns the font with the same attributes as the definition or creates a new one.
+     * @param definition the font definition
+     * @return the font shared by all definitions with the same attributes
+     */
+    XSSFFont getFont(PoiFontDefinition definition) {
+        return fonts.computeIfAbsent(definition.getKey(), key -> {
+            XSSFFont font = (XSSFFont) workbook.createFont();
+            definition.applyTo(font);
+            return font;
+        });
+    }
+
+    private final Workbook workbook;
+    private final Map<String, XSSFFont> fonts = new HashMap<>();
+}
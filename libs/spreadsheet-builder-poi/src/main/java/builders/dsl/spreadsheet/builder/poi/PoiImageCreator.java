@@ -25,8 +25,9 @@ import org.apache.poi.ss.usermodel.Drawing;
 import org.apache.poi.ss.usermodel.Picture;
 import org.apache.poi.util.IOUtils;
 
-import java.io.*;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Future;
 
 class PoiImageCreator implements ImageCreator {
 
@@ -37,27 +38,16 @@ class PoiImageCreator implements ImageCreator {
 
     @Override
     public CellDefinition from(String fileOrUrl) {
-        if (fileOrUrl.startsWith("https://") || fileOrUrl.startsWith("http://")) {
-            try {
-                from(new BufferedInputStream(new URL(fileOrUrl).openStream()));
-            } catch (IOException e) {
-                throw new RuntimeException("Exception opening image stream: " + fileOrUrl, e);
-            }
-            return cell;
-        }
-
-        try {
-            from(new FileInputStream(new File(fileOrUrl)));
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException("Image file not found: " + fileOrUrl, e);
-        }
+        PoiWorkbookDefinition workbook = cell.getRow().getSheet().getWorkbook();
+        Future<byte[]> data = workbook.getPictures().fetch(fileOrUrl);
+        workbook.addPendingImage(cell.getCell().getRow(), () -> addPicture(getPictures().addPicture(PoiPictureRegistry.await(fileOrUrl, data), type)));
         return cell;
     }
 
     @Override
     public CellDefinition from(InputStream stream) {
         try {
-            addPicture(cell.getRow().getSheet().getSheet().getWorkbook().addPicture(IOUtils.toByteArray(stream), type));
+            addPicture(getPictures().addPicture(IOUtils.toByteArray(stream), type));
         } catch (IOException e) {
             throw new RuntimeException("Exception adding image from stream: " + stream, e);
         }
@@ -66,14 +56,19 @@ class PoiImageCreator implements ImageCreator {
 
     @Override
     public CellDefinition from(byte[] imageData) {
-        addPicture(cell.getRow().getSheet().getSheet().getWorkbook().addPicture(imageData, type));
+        addPicture(getPictures().addPicture(imageData, type));
         return cell;
     }
 
+    private PoiPictureRegistry getPictures() {
+        return cell.getRow().getSheet().getWorkbook().getPictures();
+    }
+
     private void addPicture(int pictureIdx) {
-        Drawing<?> drawing = cell.getRow().getSheet().getSheet().createDrawingPatriarch();
+        // the sheet of the cell measures the rows kept in memory after the workbook switched to the streaming mode
+        Drawing<?> drawing = cell.getCell().getSheet().createDrawingPatriarch();
 
-        CreationHelper helper = cell.getRow().getSheet().getSheet().getWorkbook().getCreationHelper();
+        CreationHelper helper = cell.getCell().getSheet().getWorkbook().getCreationHelper();
         ClientAnchor anchor = helper.createClientAnchor();
         anchor.setCol1(cell.getCell().getColumnIndex());
         anchor.setRow1(cell.getCell().getRowIndex());
@@ -0,0 +1,181 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.extensions.XSSFCellBorder.BorderSide;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Draws the borders of the merged regions. The cells on the edges of the region get the variant of their own style
+ * with the borders of the region style added on the sides lying on the edge of the region. Each variant is created only
+ * once for every combination of the cell style and the borders added so the regions with equal inline styles
+ * share the variants.
+ */
+class PoiMergedBorders {
+
+    private static final int TOP = 1;
+    private static final int BOTTOM = 2;
+    private static final int LEFT = 4;
+    private static final int RIGHT = 8;
+
+    PoiMergedBorders(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * Applies the borders of the style of the top left cell to the edges of the merged region.
+     * @param regionStyle the style of the top left cell
+     * @param region the merged region
+     * @param sheet the sheet of the region
+     */
+    void apply(XSSFCellStyle regionStyle, CellRangeAddress region, Sheet sheet) {
+        int sides = (hasBorder(regionStyle, BorderSide.TOP) ? TOP : 0)
+            | (hasBorder(regionStyle, BorderSide.BOTTOM) ? BOTTOM : 0)
+            | (hasBorder(regionStyle, BorderSide.LEFT) ? LEFT : 0)
+            | (hasBorder(regionStyle, BorderSide.RIGHT) ? RIGHT : 0);
+
+        if (sides == 0) {
+            return;
+        }
+
+        for (int r = region.getFirstRow(); r <= region.getLastRow(); r++) {
+            int rowEdges = (r == region.getFirstRow() ? TOP : 0) | (r == region.getLastRow() ? BOTTOM : 0);
+            if (rowEdges == 0) {
+                // only the left and right edges have borders in the inner rows
+                if (region.getFirstColumn() == region.getLastColumn()) {
+                    applyTo(sheet, r, region.getFirstColumn(), (LEFT | RIGHT) & sides, regionStyle);
+                } else {
+                    applyTo(sheet, r, region.getFirstColumn(), LEFT & sides, regionStyle);
+                    applyTo(sheet, r, region.getLastColumn(), RIGHT & sides, regionStyle);
+                }
+                continue;
+            }
+            for (int c = region.getFirstColumn(); c <= region.getLastColumn(); c++) {
+                if (r == region.getFirstRow() && c == region.getFirstColumn()) {
+                    // the top left cell already has the region style
+                    continue;
+                }
+                int edges = rowEdges | (c == region.getFirstColumn() ? LEFT : 0) | (c == region.getLastColumn() ? RIGHT : 0);
+                applyTo(sheet, r, c, edges & sides, regionStyle);
+            }
+        }
+    }
+
+    private void applyTo(Sheet sheet, int rowIndex, int columnIndex, int edges, XSSFCellStyle regionStyle) {
+        if (edges == 0) {
+            return;
+        }
+        Cell cell = getOrCreateCell(sheet, rowIndex, columnIndex);
+        cell.setCellStyle(getVariant((XSSFCellStyle) cell.getCellStyle(), regionStyle, edges));
+    }
+
+    private XSSFCellStyle getVariant(XSSFCellStyle base, XSSFCellStyle regionStyle, int edges) {
+        String key = getVariantKey(base, regionStyle, edges);
+        XSSFCellStyle variant = variants.get(key);
+        if (variant != null) {
+            return variant;
+        }
+
+        variant = (XSSFCellStyle) workbook.createCellStyle();
+        variant.cloneStyleFrom(base);
+        copyBorder(regionStyle, variant, edges, TOP, BorderSide.TOP);
+        copyBorder(regionStyle, variant, edges, BOTTOM, BorderSide.BOTTOM);
+        copyBorder(regionStyle, variant, edges, LEFT, BorderSide.LEFT);
+        copyBorder(regionStyle, variant, edges, RIGHT, BorderSide.RIGHT);
+
+        variants.put(key, variant);
+        return variant;
+    }
+
+    private static String getVariantKey(XSSFCellStyle base, XSSFCellStyle regionStyle, int edges) {
+        StringBuilder key = new StringBuilder().append(base.getIndex());
+        appendBorder(key, edges, TOP, BorderSide.TOP, regionStyle.getBorderTop(), regionStyle);
+        appendBorder(key, edges, BOTTOM, BorderSide.BOTTOM, regionStyle.getBorderBottom(), regionStyle);
+        appendBorder(key, edges, LEFT, BorderSide.LEFT, regionStyle.getBorderLeft(), regionStyle);
+        appendBorder(key, edges, RIGHT, BorderSide.RIGHT, regionStyle.getBorderRight(), regionStyle);
+        return key.toString();
+    }
+
+    private static void appendBorder(StringBuilder key, int edges, int edge, BorderSide side, BorderStyle border, XSSFCellStyle regionStyle) {
+        key.append('|');
+        if ((edges & edge) == 0) {
+            return;
+        }
+        key.append(border.getCode());
+        XSSFColor color = regionStyle.getBorderColor(side);
+        if (color != null) {
+            key.append(':').append(color.getCTColor().xmlText());
+        }
+    }
+
+    private static void copyBorder(XSSFCellStyle from, XSSFCellStyle to, int edges, int edge, BorderSide side) {
+        if ((edges & edge) == 0) {
+            return;
+        }
+        switch (side) {
+            case TOP:
+                to.setBorderTop(from.getBorderTop());
+                break;
+            case BOTTOM:
+                to.setBorderBottom(from.getBorderBottom());
+                break;
+            case LEFT:
+                to.setBorderLeft(from.getBorderLeft());
+                break;
+            default:
+                to.setBorderRight(from.getBorderRight());
+                break;
+        }
+        to.setBorderColor(side, from.getBorderColor(side));
+    }
+
+    private static boolean hasBorder(XSSFCellStyle style, BorderSide side) {
+        switch (side) {
+            case TOP:
+                return style.getBorderTop() != BorderStyle.NONE;
+            case BOTTOM:
+                return style.getBorderBottom() != BorderStyle.NONE;
+            case LEFT:
+                return style.getBorderLeft() != BorderStyle.NONE;
+            default:
+                return style.getBorderRight() != BorderStyle.NONE;
+        }
+    }
+
+    private static Cell getOrCreateCell(Sheet sheet, int rowIndex, int columnIndex) {
+        Row row = sheet.getRow(rowIndex);
+        if (row == null) {
+            row = sheet.createRow(rowIndex);
+        }
+        Cell cell = row.getCell(columnIndex);
+        return cell != null ? cell : row.createCell(columnIndex);
+    }
+
+    private final Workbook workbook;
+    private final Map<String, XSSFCellStyle> variants = new HashMap<>();
+}
@@ -0,0 +1,82 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index of the merged regions of the sheet. For every row the regions crossing the row are kept sorted by their first
+ * column so the overlaps are found without checking all the regions of the sheet as POI does.
+ */
+class PoiMergedRegions {
+
+    PoiMergedRegions(Sheet sheet) {
+        this.sheet = sheet;
+    }
+
+    /**
+     * Adds the merged region to the sheet.
+     * @param region the new merged region
+     * @throws IllegalStateException if the region overlaps with an existing merged region
+     */
+    void add(CellRangeAddress region) {
+        if (rows == null) {
+            rows = new HashMap<>();
+            for (CellRangeAddress existing : sheet.getMergedRegions()) {
+                index(existing);
+            }
+        }
+
+        CellRangeAddress existing = findOverlap(region);
+        if (existing != null) {
+            throw new IllegalStateException("Cannot add merged region " + region.formatAsString()
+                + " to sheet because it overlaps with an existing merged region (" + existing.formatAsString() + ").");
+        }
+
+        sheet.addMergedRegionUnsafe(region);
+        index(region);
+    }
+
+    private CellRangeAddress findOverlap(CellRangeAddress region) {
+        for (int row = region.getFirstRow(); row <= region.getLastRow(); row++) {
+            TreeMap<Integer, CellRangeAddress> regions = rows.get(row);
+            if (regions == null) {
+                continue;
+            }
+            Map.Entry<Integer, CellRangeAddress> candidate = regions.floorEntry(region.getLastColumn());
+            if (candidate != null && candidate.getValue().getLastColumn() >= region.getFirstColumn()) {
+                return candidate.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void index(CellRangeAddress region) {
+        for (int row = region.getFirstRow(); row <= region.getLastRow(); row++) {
+            rows.computeIfAbsent(row, r -> new TreeMap<>()).put(region.getFirstColumn(), region);
+        }
+    }
+
+    private final Sheet sheet;
+    private Map<Integer, TreeMap<Integer, CellRangeAddress>> rows;
+}
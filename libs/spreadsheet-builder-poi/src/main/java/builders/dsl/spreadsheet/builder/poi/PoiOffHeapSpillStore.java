@@ -0,0 +1,123 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Keeps the spilled rows in direct byte buffers allocated in chunks as the data grow. The buffers are released
+ * by the garbage collector once the spill is closed.
+ */
+class PoiOffHeapSpillStore implements PoiSpillStore {
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    @Override
+    public Spill createSpill() {
+        return new OffHeapSpill();
+    }
+
+    private static class OffHeapSpill implements Spill {
+
+        @Override
+        public OutputStream getOutputStream() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                    current().put((byte) b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    while (len > 0) {
+                        ByteBuffer chunk = current();
+                        int length = Math.min(len, chunk.remaining());
+                        chunk.put(b, off, length);
+                        off += length;
+                        len -= length;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            List<ByteBuffer> data = new ArrayList<>(chunks.size());
+            for (ByteBuffer chunk : chunks) {
+                data.add(chunk.duplicate().flip());
+            }
+            Iterator<ByteBuffer> iterator = data.iterator();
+
+            return new InputStream() {
+                @Override
+                public int read() {
+                    ByteBuffer chunk = next();
+                    return chunk == null ? -1 : chunk.get() & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (len == 0) {
+                        return 0;
+                    }
+                    ByteBuffer chunk = next();
+                    if (chunk == null) {
+                        return -1;
+                    }
+                    int length = Math.min(len, chunk.remaining());
+                    chunk.get(b, off, length);
+                    return length;
+                }
+
+                private ByteBuffer next() {
+                    while (reading == null || !reading.hasRemaining()) {
+                        if (!iterator.hasNext()) {
+                            return null;
+                        }
+                        reading = iterator.next();
+                    }
+                    return reading;
+                }
+
+                private ByteBuffer reading;
+            };
+        }
+
+        @Override
+        public void close() {
+            chunks.clear();
+        }
+
+        private ByteBuffer current() {
+            ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (chunk == null || !chunk.hasRemaining()) {
+                chunk = ByteBuffer.allocateDirect(CHUNK_SIZE);
+                chunks.add(chunk);
+            }
+            return chunk;
+        }
+
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+    }
+
+}
@@ -33,8 +33,14 @@ class PoiPendingFormula extends AbstractPendingFormula {
     }
 
     protected void doResolve(String expandedFormula) {
+        if (resolved) {
+            // the formulas of the streamed rows are resolved when the row is flushed
+            return;
+        }
+        resolved = true;
         getPoiCell().getCell().setCellFormula(expandedFormula);
         getPoiCell().getCell().setCellType(CellType.FORMULA);
+        getPoiCell().getRow().getSheet().getWorkbook().addFormulaCell(getPoiCell().getCell());
     }
 
 
@@ -55,4 +61,6 @@ class PoiPendingFormula extends AbstractPendingFormula {
         return (PoiCellDefinition) getCell();
     }
 
+    private boolean resolved;
+
 }
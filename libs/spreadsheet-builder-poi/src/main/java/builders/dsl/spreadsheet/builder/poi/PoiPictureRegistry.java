@@ -0,0 +1,174 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Registry of the pictures embedded in the workbook. The pictures with the same content are stored only once
+ * and the same file or URL is read only once per build.
+ *
+ * The files and URLs are fetched in the background on virtual threads so the build continues while the images
+ * are being loaded. The fetched data are awaited when the pictures are resolved at the end of the build.
+ */
+class PoiPictureRegistry {
+
+    PoiPictureRegistry(Workbook workbook, PoiBuilderOptions options) {
+        this.workbook = workbook;
+        this.options = options;
+        this.permits = new Semaphore(options.getImageConcurrency());
+    }
+
+    /**
+     * Returns the index of the picture with the same content and type or adds the picture to the workbook.
+     * @param data the picture data
+     * @param type the picture type such as {@link Workbook#PICTURE_TYPE_PNG}
+     * @return the index of the picture in the workbook
+     */
+    int addPicture(byte[] data, int type) {
+        return pictures.computeIfAbsent(type + ":" + digest(data), key -> workbook.addPicture(data, type));
+    }
+
+    /**
+     * Starts fetching the picture from the file or URL unless it is being fetched already.
+     * @param fileOrUrl the file path or http(s) URL
+     * @return the future data of the picture
+     */
+    Future<byte[]> fetch(String fileOrUrl) {
+        return fetches.computeIfAbsent(fileOrUrl, source -> {
+            if (executor == null) {
+                executor = Executors.newVirtualThreadPerTaskExecutor();
+            }
+            CompletableFuture<byte[]> future = new CompletableFuture<>();
+            executor.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    future.complete(load(source));
+                } catch (Throwable e) {
+                    // errors such as OutOfMemoryError must complete the future as well otherwise the build waits forever
+                    future.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            });
+            return future;
+        });
+    }
+
+    /**
+     * Waits for the picture being fetched.
+     * @param fileOrUrl the file path or http(s) URL
+     * @param data the future data returned from {@link #fetch(String)}
+     * @return the data of the picture
+     */
+    static byte[] await(String fileOrUrl, Future<byte[]> data) {
+        try {
+            return data.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading image: " + fileOrUrl, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Exception loading image: " + fileOrUrl, e.getCause());
+        }
+    }
+
+    void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private byte[] load(String fileOrUrl) {
+        if (fileOrUrl.startsWith("https://") || fileOrUrl.startsWith("http://")) {
+            try {
+                URLConnection connection = URI.create(fileOrUrl).toURL().openConnection();
+                connection.setConnectTimeout(Math.toIntExact(options.getImageTimeout().toMillis()));
+                connection.setReadTimeout(Math.toIntExact(options.getImageTimeout().toMillis()));
+                try (InputStream stream = new BufferedInputStream(connection.getInputStream())) {
+                    return read(stream, fileOrUrl);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Exception opening image stream: " + fileOrUrl, e);
+            }
+        }
+
+        try (InputStream stream = new FileInputStream(new File(fileOrUrl))) {
+            return read(stream, fileOrUrl);
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException("Image file not found: " + fileOrUrl, e);
+        } catch (IOException e) {
+            throw new RuntimeException("Exception reading image file: " + fileOrUrl, e);
+        }
+    }
+
+    private byte[] read(InputStream stream, String fileOrUrl) throws IOException {
+        // one byte over the limit tells the image is too big, the limit itself may already be the maximal array size
+        byte[] data = stream.readNBytes(Math.min(options.getImageSizeLimit(), Integer.MAX_VALUE - 1) + 1);
+        if (data.length > options.getImageSizeLimit()) {
+            throw new IllegalStateException("Image " + fileOrUrl + " exceeds the size limit of " + options.getImageSizeLimit() + " bytes");
+        }
+        return data;
+    }
+
+    private static String digest(byte[] data) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private final Workbook workbook;
+    private final PoiBuilderOptions options;
+    private final Semaphore permits;
+    private final Map<String, Integer> pictures = new HashMap<>();
+    private final Map<String, Future<byte[]>> fetches = new HashMap<>();
+    private ExecutorService executor;
+}
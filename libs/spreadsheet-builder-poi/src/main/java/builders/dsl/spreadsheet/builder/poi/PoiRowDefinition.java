@@ -21,6 +21,7 @@ import builders.dsl.spreadsheet.builder.api.RowDefinition;
 import builders.dsl.spreadsheet.impl.AbstractCellDefinition;
 import builders.dsl.spreadsheet.impl.AbstractRowDefinition;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 
 class PoiRowDefinition extends AbstractRowDefinition implements RowDefinition {
@@ -38,6 +39,12 @@ class PoiRowDefinition extends AbstractRowDefinition implements RowDefinition {
 
         if (cell == null) {
             cell = xssfRow.createCell(zeroBasedCellNumber);
+            getSheet().getWorkbook().addCell();
+            // the cell without the style attribute would use the default style instead of the column one
+            CellStyle columnStyle = getSheet().getColumnStyle(zeroBasedCellNumber);
+            if (columnStyle != null) {
+                cell.setCellStyle(columnStyle);
+            }
         }
 
         return new PoiCellDefinition(this, cell);
@@ -48,7 +55,7 @@ class PoiRowDefinition extends AbstractRowDefinition implements RowDefinition {
         if (cell instanceof PoiCellDefinition) {
             PoiCellDefinition poiCell = (PoiCellDefinition) cell;
             if (poiCell.getColspan() > 1 || poiCell.getRowspan() > 1) {
-                xssfRow.getSheet().addMergedRegion(poiCell.getCellRangeAddress());
+                getSheet().addMergedRegion(poiCell.getCellRangeAddress());
             }
         } else {
             throw new IllegalArgumentException("Unsupported cell: " + cell);
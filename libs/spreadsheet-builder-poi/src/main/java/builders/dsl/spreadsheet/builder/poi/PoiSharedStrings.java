@@ -0,0 +1,209 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact table of the shared strings written by the streaming workbook.
+ *
+ * The strings are stored already escaped as UTF-8 bytes appended to large chunks which are allocated outside
+ * of the heap once the table grows big. The strings are deduplicated using an open addressing hash table
+ * of the string indexes so no per string objects are kept.
+ */
+class PoiSharedStrings {
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final long OFF_HEAP_THRESHOLD = 16 * 1024 * 1024;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte[] HEADER = ("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+        + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] START = "<si><t xml:space=\"preserve\">".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "</t></si>".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FOOTER = "</sst>".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Returns the index of the string in the table adding the string if it is not present yet.
+     * @param value the string value
+     * @return the index of the string in the table
+     */
+    int add(String value) {
+        references++;
+
+        byte[] bytes = escape(value).getBytes(StandardCharsets.UTF_8);
+        int hash = Arrays.hashCode(bytes);
+        int mask = slots.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (index < 0) {
+                index = append(bytes, hash);
+                slots[slot] = index + 1;
+                if (size * 2 > slots.length) {
+                    rehash();
+                }
+                return index;
+            }
+            if (hashes[index] == hash && matches(index, bytes)) {
+                return index;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Writes the table as the shared strings part of the package.
+     * @param out the output stream, not closed by this method
+     * @throws IOException if the table cannot be written
+     */
+    void writeTo(OutputStream out) throws IOException {
+        out.write(HEADER);
+        out.write((references + "\" uniqueCount=\"" + size + "\">").getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[CHUNK_SIZE];
+        for (int i = 0; i < size; i++) {
+            out.write(START);
+            ByteBuffer data = chunks.get(chunkIndexes[i]).duplicate();
+            data.position(positions[i]);
+            int remaining = lengths[i];
+            while (remaining > 0) {
+                int length = Math.min(remaining, buffer.length);
+                data.get(buffer, 0, length);
+                out.write(buffer, 0, length);
+                remaining -= length;
+            }
+            out.write(END);
+        }
+        out.write(FOOTER);
+    }
+
+    private int append(byte[] bytes, int hash) {
+        ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (chunk == null || chunk.remaining() < bytes.length) {
+            int capacity = Math.max(CHUNK_SIZE, bytes.length);
+            chunk = allocated < OFF_HEAP_THRESHOLD ? ByteBuffer.allocate(capacity) : ByteBuffer.allocateDirect(capacity);
+            allocated += capacity;
+            chunks.add(chunk);
+        }
+
+        if (size == lengths.length) {
+            int capacity = size * 2;
+            chunkIndexes = Arrays.copyOf(chunkIndexes, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+
+        chunkIndexes[size] = chunks.size() - 1;
+        positions[size] = chunk.position();
+        lengths[size] = bytes.length;
+        hashes[size] = hash;
+        chunk.put(bytes);
+
+        return size++;
+    }
+
+    private boolean matches(int index, byte[] bytes) {
+        if (lengths[index] != bytes.length) {
+            return false;
+        }
+        ByteBuffer chunk = chunks.get(chunkIndexes[index]);
+        int position = positions[index];
+        for (int i = 0; i < bytes.length; i++) {
+            if (chunk.get(position + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    private static String escape(String value) {
+        StringBuilder builder = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement;
+            switch (c) {
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                case '\n':
+                    replacement = "&#xa;";
+                    break;
+                case '\r':
+                    replacement = "&#xd;";
+                    break;
+                case '\t':
+                    replacement = "&#x9;";
+                    break;
+                default:
+                    replacement = c < ' ' || c == '\uFFFE' || c == '\uFFFF' ? "?" : null;
+            }
+            if (replacement != null && builder == null) {
+                builder = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (builder != null) {
+                if (replacement != null) {
+                    builder.append(replacement);
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        return builder == null ? value : builder.toString();
+    }
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private int[] chunkIndexes = new int[INITIAL_CAPACITY];
+    private int[] positions = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+    private long references;
+    private long allocated;
+}
@@ -21,12 +21,20 @@ import builders.dsl.spreadsheet.builder.api.PageDefinition;
 import builders.dsl.spreadsheet.builder.api.RowDefinition;
 import builders.dsl.spreadsheet.builder.api.SheetDefinition;
 import builders.dsl.spreadsheet.impl.AbstractSheetDefinition;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.SheetVisibility;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRow;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 class PoiSheetDefinition extends AbstractSheetDefinition implements SheetDefinition {
@@ -34,13 +42,20 @@ class PoiSheetDefinition extends AbstractSheetDefinition implements SheetDefinit
     private static final int WIDTH_ARROW_BUTTON = 2 * 255;
     public static final int MAX_COLUMN_WIDTH = 255 * 256;
 
-    private final Sheet sheet;
-    private final boolean streaming;
+    private Sheet sheet;
+    private boolean streaming;
+    private Sheet inMemorySheet;
+    private int inMemoryLastRow;
+    private final List<PoiColumnFormula> columnFormulas = new ArrayList<>();
+    private final Map<Integer, CellStyle> columnStyles = new HashMap<>();
+    private final PoiMergedRegions mergedRegions;
+    private long nextSharedFormulaIndex = -1;
 
     PoiSheetDefinition(PoiWorkbookDefinition workbook, Sheet sheet) {
         super(workbook);
         this.sheet = sheet;
         this.streaming = sheet instanceof SXSSFSheet;
+        this.mergedRegions = new PoiMergedRegions(sheet);
     }
 
     @Override
@@ -52,15 +67,112 @@ class PoiSheetDefinition extends AbstractSheetDefinition implements SheetDefinit
     }
 
     @Override protected PoiRowDefinition createRow(int zeroBasedRowNumber) {
-        Row row = sheet.getRow(zeroBasedRowNumber);
+        getWorkbook().checkHeapBudget(this, zeroBasedRowNumber);
+
+        // rows created before switching to the streaming mode stay in memory and can still be changed
+        Sheet target = inMemorySheet != null && zeroBasedRowNumber <= inMemoryLastRow ? inMemorySheet : sheet;
+        Row row = target.getRow(zeroBasedRowNumber);
 
         if (row == null) {
-            row = sheet.createRow(zeroBasedRowNumber);
+            row = target.createRow(zeroBasedRowNumber);
+        }
+
+        for (PoiColumnFormula formula : columnFormulas) {
+            if (formula.covers(row)) {
+                formula.apply(row);
+            }
         }
 
         return new PoiRowDefinition(this, row);
     }
 
+    /**
+     * Continues the sheet in the streaming mode. The rows already created are kept by the in-memory sheet.
+     *
+     * @param streamingSheet the streaming sheet backed by the current in-memory sheet
+     */
+    void switchToStreaming(SXSSFSheet streamingSheet) {
+        if (streaming) {
+            return;
+        }
+        inMemorySheet = sheet;
+        inMemoryLastRow = sheet.getLastRowNum();
+        sheet = streamingSheet;
+        streaming = true;
+    }
+
+    void addMergedRegion(CellRangeAddress region) {
+        mergedRegions.add(region);
+    }
+
+    @Override
+    protected PoiColumnDefinition createColumnDefinition(int zeroBasedColumn) {
+        return new PoiColumnDefinition(this, zeroBasedColumn);
+    }
+
+    void setColumnStyle(int zeroBasedColumn, CellStyle style) {
+        sheet.setDefaultColumnStyle(zeroBasedColumn, style);
+        columnStyles.put(zeroBasedColumn, style);
+    }
+
+    CellStyle getColumnStyle(int zeroBasedColumn) {
+        return columnStyles.get(zeroBasedColumn);
+    }
+
+    boolean isColumnStyle(CellStyle style) {
+        return !columnStyles.isEmpty() && columnStyles.containsValue(style);
+    }
+
+    @Override
+    protected void doFormula(int zeroBasedColumn, int zeroBasedFirstRow, int zeroBasedLastRow, String formula) {
+        PoiColumnFormula columnFormula = new PoiColumnFormula(this, zeroBasedColumn, zeroBasedFirstRow, zeroBasedLastRow, formula);
+        if (streaming) {
+            int lastFlushedRow = ((SXSSFSheet) sheet).getLastFlushedRowNum();
+            if (zeroBasedFirstRow <= lastFlushedRow) {
+                throw new IllegalStateException("Cannot declare formula " + formula + " starting at row " + (zeroBasedFirstRow + 1)
+                    + " of sheet " + getName() + " as the rows up to " + (lastFlushedRow + 1) + " have already been written");
+            }
+            // rows kept in memory get the formula now, the rest gets the formula when created
+            if (inMemorySheet != null) {
+                for (Row row : inMemorySheet) {
+                    if (row.getRowNum() <= inMemoryLastRow && columnFormula.covers(row)) {
+                        columnFormula.apply(row);
+                    }
+                }
+            }
+            for (Row row : sheet) {
+                if (columnFormula.covers(row)) {
+                    columnFormula.apply(row);
+                }
+            }
+            columnFormulas.add(columnFormula);
+            return;
+        }
+        if (!getWorkbook().isEvaluatingFormulas()) {
+            columnFormula.applyShared(nextSharedFormulaIndex());
+            return;
+        }
+        for (int i = zeroBasedFirstRow; i <= zeroBasedLastRow; i++) {
+            Row row = sheet.getRow(i);
+            columnFormula.apply(row != null ? row : sheet.createRow(i));
+        }
+    }
+
+    private long nextSharedFormulaIndex() {
+        if (nextSharedFormulaIndex < 0) {
+            // the sheet created from the template may already contain shared formulas
+            nextSharedFormulaIndex = 0;
+            for (CTRow row : ((XSSFSheet) sheet).getCTWorksheet().getSheetData().getRowArray()) {
+                for (CTCell cell : row.getCArray()) {
+                    if (cell.isSetF() && cell.getF().isSetSi()) {
+                        nextSharedFormulaIndex = Math.max(nextSharedFormulaIndex, cell.getF().getSi() + 1);
+                    }
+                }
+            }
+        }
+        return nextSharedFormulaIndex++;
+    }
+
     @Override
     protected PageDefinition createPageDefinition() {
         return new PoiPageSettingsProvider(this);
@@ -124,7 +236,7 @@ class PoiSheetDefinition extends AbstractSheetDefinition implements SheetDefinit
 
     @Override
     public void addAutoColumn(int i) {
-        if (getSheet() instanceof SXSSFSheet) {
+        if (getSheet() instanceof SXSSFSheet && inMemorySheet == null) {
             ((SXSSFSheet) getSheet()).trackColumnForAutoSizing(i);
         } else {
             super.addAutoColumn(i);
@@ -132,22 +244,30 @@ class PoiSheetDefinition extends AbstractSheetDefinition implements SheetDefinit
     }
 
     protected void processAutoColumns() {
-        if (!(getSheet() instanceof SXSSFSheet)) {
+        // the sheet switched to the streaming mode only measures the rows kept in memory
+        Sheet measured = inMemorySheet != null ? inMemorySheet : sheet;
+        if (!(measured instanceof SXSSFSheet)) {
             for (Integer index : autoColumns) {
-                sheet.autoSizeColumn(index);
+                measured.autoSizeColumn(index);
                 if (automaticFilter) {
-                    sheet.setColumnWidth(index, Math.min(sheet.getColumnWidth(index) + WIDTH_ARROW_BUTTON, MAX_COLUMN_WIDTH));
+                    measured.setColumnWidth(index, Math.min(measured.getColumnWidth(index) + WIDTH_ARROW_BUTTON, MAX_COLUMN_WIDTH));
                 }
             }
         }
     }
 
     protected void processAutomaticFilter() {
-        if (automaticFilter && sheet.getLastRowNum() > 0) {
-            Row firstOrLastRow = Optional.ofNullable(sheet.getRow(sheet.getFirstRowNum())).orElse(sheet.getRow(sheet.getLastRowNum()));
+        if (!automaticFilter) {
+            return;
+        }
+        Sheet first = inMemorySheet != null && inMemorySheet.getPhysicalNumberOfRows() > 0 ? inMemorySheet : sheet;
+        int firstRowNum = first.getFirstRowNum();
+        int lastRowNum = Math.max(sheet.getLastRowNum(), inMemorySheet != null ? inMemorySheet.getLastRowNum() : 0);
+        if (lastRowNum > 0) {
+            Row firstOrLastRow = Optional.ofNullable(first.getRow(firstRowNum)).orElse(sheet.getRow(sheet.getLastRowNum()));
             sheet.setAutoFilter(new CellRangeAddress(
-                    sheet.getFirstRowNum(),
-                    sheet.getLastRowNum(),
+                    firstRowNum,
+                    lastRowNum,
                     firstOrLastRow.getFirstCellNum(),
                     firstOrLastRow.getLastCellNum() - 1
             ));
@@ -0,0 +1,76 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Storage for the rows which have already been flushed from the window of the streaming workbook.
+ */
+public interface PoiSpillStore {
+
+    /**
+     * Stores the spilled rows in temporary files created in the default temporary directory.
+     * @return store backed by temporary files
+     */
+    static PoiSpillStore tempFiles() {
+        return new PoiTempFileSpillStore(null);
+    }
+
+    /**
+     * Stores the spilled rows in temporary files created in given directory.
+     * @param directory the directory for the temporary files
+     * @return store backed by temporary files
+     */
+    static PoiSpillStore tempFiles(Path directory) {
+        return new PoiTempFileSpillStore(directory);
+    }
+
+    /**
+     * Stores the spilled rows in direct byte buffers outside of the heap. Useful if the temporary directory
+     * is small or backed by memory anyway.
+     * @return store backed by direct byte buffers
+     */
+    static PoiSpillStore offHeap() {
+        return new PoiOffHeapSpillStore();
+    }
+
+    /**
+     * Creates new storage for the rows of a single sheet.
+     * @return new storage for the rows of a single sheet
+     * @throws IOException if the storage cannot be created
+     */
+    Spill createSpill() throws IOException;
+
+    /**
+     * Storage for the rows of a single sheet. The data are written once and read once when the workbook is written.
+     * Closing the spill releases all its resources.
+     */
+    interface Spill extends Closeable {
+
+        OutputStream getOutputStream() throws IOException;
+
+        InputStream getInputStream() throws IOException;
+
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the rows flushed from the window of the streaming workbook into the {@link PoiSpillStore.Spill}.
+ * The text cells are written as references into the {@link PoiSharedStrings} if the strings are shared.
+ * Each row is passed to the flush listener while it can still be changed, just before it is written.
+ * <p>
+ * The writers of the sheets continued from the template are created by the constructor of the workbook before its
+ * own fields are assigned. Therefore the writer reads the settings of the workbook and opens the spill only when
+ * the first row is written.
+ */
+class PoiSpillingSheetDataWriter extends SheetDataWriter {
+
+    private static final int SAMPLE_SIZE = 1000;
+
+    PoiSpillingSheetDataWriter(PoiStreamingWorkbook workbook) throws IOException {
+        this(workbook, new SpillWriter(workbook));
+    }
+
+    private PoiSpillingSheetDataWriter(PoiStreamingWorkbook workbook, SpillWriter writer) throws IOException {
+        super(writer);
+        this.workbook = workbook;
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeRow(int rownum, SXSSFRow row) throws IOException {
+        if (!registered) {
+            workbook.register(this);
+            registered = true;
+        }
+        workbook.beforeFlush(row);
+        super.writeRow(rownum, row);
+    }
+
+    @Override
+    public void writeCell(int columnIndex, Cell cell) throws IOException {
+        PoiSharedStrings strings = workbook.getSharedStrings();
+        if (strings == null || !isShared(columnIndex, cell)) {
+            super.writeCell(columnIndex, cell);
+            return;
+        }
+
+        writer.write("<c r=\"");
+        writer.write(new CellReference(cell.getRowIndex(), columnIndex).formatAsString());
+        writer.write('"');
+        int style = cell.getCellStyle().getIndex() & 0xffff;
+        if (style != 0) {
+            writer.write(" s=\"");
+            writer.write(Integer.toString(style));
+            writer.write('"');
+        }
+        writer.write(" t=\"s\"><v>");
+        writer.write(Integer.toString(strings.add(cell.getStringCellValue())));
+        writer.write("</v></c>");
+    }
+
+    @Override
+    public InputStream getWorksheetXMLInputStream() throws IOException {
+        return writer.getInputStream();
+    }
+
+    /**
+     * Closes the writer and releases the spilled rows.
+     * @throws IOException if the resources cannot be released
+     */
+    void release() throws IOException {
+        try {
+            close();
+        } finally {
+            writer.release();
+        }
+    }
+
+    private boolean isShared(int columnIndex, Cell cell) {
+        if (cell == null || cell.getCellType() != CellType.STRING || cell.getRichStringCellValue().numFormattingRuns() > 0) {
+            // formatted texts are left to the default implementation
+            return false;
+        }
+        boolean adaptive = workbook.getStreamingOptions().getStrings() == PoiStreamingOptions.StringStrategy.ADAPTIVE;
+        return !adaptive || samples.computeIfAbsent(columnIndex, index -> new ColumnSample()).isShared(cell.getStringCellValue());
+    }
+
+    /**
+     * Writes into the spill which is created with the first character written.
+     */
+    private static class SpillWriter extends Writer {
+
+        SpillWriter(PoiStreamingWorkbook workbook) {
+            this.workbook = workbook;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            open().write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            open().write(str, off, len);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            open().write(c);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (delegate != null) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate != null) {
+                delegate.close();
+            }
+        }
+
+        InputStream getInputStream() throws IOException {
+            if (spill == null) {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+            InputStream stream = spill.getInputStream();
+            return compress ? new GZIPInputStream(stream) : stream;
+        }
+
+        void release() throws IOException {
+            if (spill != null) {
+                spill.close();
+            }
+        }
+
+        private Writer open() throws IOException {
+            if (delegate != null) {
+                return delegate;
+            }
+            PoiStreamingOptions streaming = workbook.getStreamingOptions();
+            PoiSpillStore.Spill created = streaming.getSpillStore().createSpill();
+            try {
+                OutputStream stream = created.getOutputStream();
+                if (streaming.isCompressingTempFiles()) {
+                    stream = new GZIPOutputStream(stream);
+                }
+                delegate = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+            } catch (IOException | RuntimeException e) {
+                created.close();
+                throw e;
+            }
+            spill = created;
+            compress = streaming.isCompressingTempFiles();
+            return delegate;
+        }
+
+        private final PoiStreamingWorkbook workbook;
+        private PoiSpillStore.Spill spill;
+        private Writer delegate;
+        private boolean compress;
+    }
+
+    /**
+     * Shares the strings of the column until enough texts are sampled to tell whether they repeat.
+     */
+    private static class ColumnSample {
+
+        boolean isShared(String value) {
+            if (distinct == null) {
+                return shared;
+            }
+            distinct.add(value);
+            if (++count == SAMPLE_SIZE) {
+                shared = distinct.size() * 2 <= count;
+                distinct = null;
+            }
+            return true;
+        }
+
+        private Set<String> distinct = new HashSet<>();
+        private int count;
+        private boolean shared;
+    }
+
+    private final PoiStreamingWorkbook workbook;
+    private final SpillWriter writer;
+    private final Map<Integer, ColumnSample> samples = new HashMap<>();
+    private boolean registered;
+}
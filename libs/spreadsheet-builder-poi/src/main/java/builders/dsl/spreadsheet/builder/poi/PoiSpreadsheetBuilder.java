@@ -46,6 +46,14 @@ public class PoiSpreadsheetBuilder implements SpreadsheetBuilder {
         return new PoiSpreadsheetBuilder(XSSFWorkbook::new, new FileOutputStream(file), true);
     }
 
+    public static SpreadsheetBuilder create(OutputStream out, PoiBuilderOptions options) {
+        return new PoiSpreadsheetBuilder(XSSFWorkbook::new, out, true, options);
+    }
+
+    public static SpreadsheetBuilder create(File file, PoiBuilderOptions options) throws FileNotFoundException {
+        return new PoiSpreadsheetBuilder(XSSFWorkbook::new, new FileOutputStream(file), true, options);
+    }
+
     public static SpreadsheetBuilder create(OutputStream out, InputStream template) {
         return new PoiSpreadsheetBuilder(() -> new XSSFWorkbook(template), out, true);
     }
@@ -74,6 +82,14 @@ public class PoiSpreadsheetBuilder implements SpreadsheetBuilder {
         return new PoiSpreadsheetBuilder(SXSSFWorkbook::new, new FileOutputStream(file), true);
     }
 
+    public static SpreadsheetBuilder stream(OutputStream out, PoiBuilderOptions options) {
+        return new PoiSpreadsheetBuilder(() -> new PoiStreamingWorkbook(options), out, true, options);
+    }
+
+    public static SpreadsheetBuilder stream(File file, PoiBuilderOptions options) throws FileNotFoundException {
+        return new PoiSpreadsheetBuilder(() -> new PoiStreamingWorkbook(options), new FileOutputStream(file), true, options);
+    }
+
     public static SpreadsheetBuilder stream(OutputStream out, InputStream template) {
         return new PoiSpreadsheetBuilder(() -> new SXSSFWorkbook(new XSSFWorkbook(template)), out, true);
     }
@@ -93,36 +109,50 @@ public class PoiSpreadsheetBuilder implements SpreadsheetBuilder {
     private final WorkbookSupplier workbookSupplier;
     private final OutputStream outputStream;
     private final boolean closeWorkbook;
+    private final PoiBuilderOptions options;
 
     private PoiSpreadsheetBuilder(WorkbookSupplier workbookSupplier, OutputStream outputStream, boolean closeWorkbook) {
+        this(workbookSupplier, outputStream, closeWorkbook, PoiBuilderOptions.create());
+    }
+
+    private PoiSpreadsheetBuilder(WorkbookSupplier workbookSupplier, OutputStream outputStream, boolean closeWorkbook, PoiBuilderOptions options) {
         this.workbookSupplier = workbookSupplier;
         this.outputStream = outputStream;
         this.closeWorkbook = closeWorkbook;
+        this.options = options;
     }
 
     @Override
     public void build(Consumer<WorkbookDefinition> workbookDefinition) {
         Workbook workbook = null;
+        PoiWorkbookDefinition poiWorkbook = null;
         try {
              workbook = workbookSupplier.get();
-            PoiWorkbookDefinition poiWorkbook = new PoiWorkbookDefinition(workbook);
+            poiWorkbook = new PoiWorkbookDefinition(workbook, options);
             workbookDefinition.accept(poiWorkbook);
             poiWorkbook.resolve();
+            poiWorkbook.evaluateFormulas();
             if (outputStream != null) {
-                writeTo(workbook, outputStream);
+                // the workbook may have switched to the streaming mode after crossing the heap budget
+                writeTo(poiWorkbook.getWorkbook(), outputStream);
             }
         } catch (Exception e) {
             throw new IllegalStateException("Exception building workbook", e);
         } finally {
+            if (poiWorkbook != null) {
+                workbook = poiWorkbook.getWorkbook();
+                poiWorkbook.close();
+            }
             if (closeWorkbook && workbook != null) {
                 try {
                     workbook.close();
+                } catch (IOException e) {
+                    System.getLogger(PoiSpreadsheetBuilder.class.getName()).log(System.Logger.Level.ERROR, "Exception closing workbook", e);
+                } finally {
                     if (workbook instanceof SXSSFWorkbook) {
                         SXSSFWorkbook sxssfWorkbook = (SXSSFWorkbook) workbook;
                         sxssfWorkbook.dispose();
                     }
-                } catch (IOException e) {
-                    System.getLogger(PoiSpreadsheetBuilder.class.getName()).log(System.Logger.Level.ERROR, "Exception closing workbook", e);
                 }
             }
         }
@@ -130,7 +160,14 @@ public class PoiSpreadsheetBuilder implements SpreadsheetBuilder {
 
     private void writeTo(Workbook workbook, OutputStream outputStream) {
         try {
-            workbook.write(outputStream);
+            if (workbook instanceof SXSSFWorkbook || options.isDefaultCompression()) {
+                // the streaming workbook creates the archive itself
+                workbook.write(outputStream);
+            } else {
+                try (PoiZipArchiveOutputStream zip = new PoiZipArchiveOutputStream(outputStream, options)) {
+                    workbook.write(zip);
+                }
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
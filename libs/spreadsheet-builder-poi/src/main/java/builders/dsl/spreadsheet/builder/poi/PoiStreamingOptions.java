@@ -0,0 +1,162 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import builders.dsl.spreadsheet.api.Keywords;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Options tuning the streaming workbook used by {@link PoiSpreadsheetBuilder#stream(java.io.File, PoiBuilderOptions)}.
+ */
+public final class PoiStreamingOptions {
+
+    /**
+     * The way the text cells are written into the sheets.
+     */
+    public enum StringStrategy {
+        /**
+         * Every text is written directly into the cell.
+         */
+        INLINE,
+        /**
+         * Every text is written only once into the shared strings table and the cells reference it.
+         */
+        SHARED,
+        /**
+         * The texts are shared in the columns with low cardinality and written directly into the cells otherwise.
+         */
+        ADAPTIVE
+    }
+
+    public static PoiStreamingOptions create() {
+        return new PoiStreamingOptions();
+    }
+
+    private static final int DEFAULT_WINDOW = 100;
+    private static final int MIN_AUTO_WINDOW = 100;
+    private static final int MAX_AUTO_WINDOW = 10000;
+    private static final long ESTIMATED_ROW_SIZE = 4 * 1024;
+
+    private int window = DEFAULT_WINDOW;
+    private boolean autoWindow;
+    private boolean compressingTempFiles;
+    private PoiSpillStore spillStore = PoiSpillStore.tempFiles();
+    private StringStrategy strings = StringStrategy.INLINE;
+
+    private PoiStreamingOptions() { }
+
+    /**
+     * Sets the number of rows kept in memory. The rows outside of the window are flushed to the spill store
+     * and cannot be accessed any more.
+     *
+     * @param rows the number of rows kept in memory, defaults to 100
+     * @return self
+     */
+    public PoiStreamingOptions window(int rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("Window must be at least 1 row. Got: " + rows);
+        }
+        this.window = rows;
+        this.autoWindow = false;
+        return this;
+    }
+
+    /**
+     * Derives the number of rows kept in memory from the heap available when the workbook is created.
+     * A tenth of the free heap is used assuming 4 KiB per row, but never less than 100 and more than 10000 rows.
+     *
+     * @param auto the auto keyword
+     * @return self
+     */
+    public PoiStreamingOptions window(Keywords.Auto auto) {
+        this.autoWindow = true;
+        return this;
+    }
+
+    /**
+     * Compresses the spilled rows using GZIP. Saves the disk space at the cost of the speed.
+     *
+     * @param compress whether the spilled rows should be compressed
+     * @return self
+     */
+    public PoiStreamingOptions compressTempFiles(boolean compress) {
+        this.compressingTempFiles = compress;
+        return this;
+    }
+
+    /**
+     * Spills the rows into the temporary files created in given directory.
+     *
+     * @param directory the directory for the temporary files
+     * @return self
+     */
+    public PoiStreamingOptions tempDirectory(Path directory) {
+        return spillStore(PoiSpillStore.tempFiles(Objects.requireNonNull(directory, "Directory")));
+    }
+
+    /**
+     * Sets the storage for the rows flushed from the window such as {@link PoiSpillStore#offHeap()}.
+     *
+     * @param store the storage of the spilled rows, defaults to the temporary files
+     * @return self
+     */
+    public PoiStreamingOptions spillStore(PoiSpillStore store) {
+        this.spillStore = Objects.requireNonNull(store, "Store");
+        return this;
+    }
+
+    /**
+     * Sets how the text cells are written. Sharing the strings produces much smaller files for the columns
+     * with repeating values such as countries or statuses. The shared strings are kept in a compact table
+     * which is moved outside of the heap when it grows large.
+     *
+     * The {@link StringStrategy#ADAPTIVE} strategy shares the strings of the first thousand text cells in every column
+     * and keeps sharing them only if the texts repeat at least twice on average.
+     *
+     * @param strategy the string strategy, defaults to {@link StringStrategy#INLINE}
+     * @return self
+     */
+    public PoiStreamingOptions strings(StringStrategy strategy) {
+        this.strings = Objects.requireNonNull(strategy, "Strategy");
+        return this;
+    }
+
+    int getWindow() {
+        if (!autoWindow) {
+            return window;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long free = runtime.maxMemory() - runtime.totalMemory() + runtime.freeMemory();
+        return (int) Math.max(MIN_AUTO_WINDOW, Math.min(MAX_AUTO_WINDOW, free / 10 / ESTIMATED_ROW_SIZE));
+    }
+
+    boolean isCompressingTempFiles() {
+        return compressingTempFiles;
+    }
+
+    PoiSpillStore getSpillStore() {
+        return spillStore;
+    }
+
+    StringStrategy getStrings() {
+        return strings;
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming workbook honouring the {@link PoiBuilderOptions}. The flushed rows are kept in the configured
+ * {@link PoiSpillStore} and released by {@link #dispose()}.
+ */
+class PoiStreamingWorkbook extends SXSSFWorkbook {
+
+    PoiStreamingWorkbook(PoiBuilderOptions options) {
+        super(null, options.getStreaming().getWindow());
+        this.options = options;
+        this.strings = options.getStreaming().getStrings() == PoiStreamingOptions.StringStrategy.INLINE ? null : new PoiSharedStrings();
+        this.fromTemplate = false;
+    }
+
+    private PoiStreamingWorkbook(XSSFWorkbook template, PoiBuilderOptions options) {
+        super(template, options.getStreaming().getWindow());
+        this.options = options;
+        this.strings = null;
+        this.fromTemplate = true;
+    }
+
+    /**
+     * Continues the in-memory workbook in the streaming mode. The rows already created stay in the template
+     * and the new ones are appended after them. The strings are always written inline as the cells of the template
+     * refer to its own shared strings table.
+     *
+     * @param template the in-memory workbook
+     * @param options the builder options
+     * @return the streaming workbook continuing the template
+     */
+    static PoiStreamingWorkbook continueWith(XSSFWorkbook template, PoiBuilderOptions options) {
+        return new PoiStreamingWorkbook(template, options);
+    }
+
+    /**
+     * Creates the writer of the sheet. For the template this is called by the super constructor before the fields
+     * are assigned so the writer must not read the settings of the workbook until the first row is written.
+     *
+     * @return the writer of the sheet
+     * @throws IOException if the writer cannot be created
+     */
+    @Override
+    protected SheetDataWriter createSheetDataWriter() throws IOException {
+        return new PoiSpillingSheetDataWriter(this);
+    }
+
+    /**
+     * Sets the listener called with each row just before it is flushed from the window.
+     *
+     * @param listener the listener called with the row which is about to be flushed
+     */
+    void onFlush(Consumer<Row> listener) {
+        this.flushListener = listener;
+    }
+
+    void beforeFlush(Row row) {
+        if (flushListener != null) {
+            flushListener.accept(row);
+        }
+    }
+
+    /**
+     * Registers the writer which has written its first row so its spill is released by {@link #dispose()}.
+     *
+     * @param writer the writer of the sheet
+     */
+    void register(PoiSpillingSheetDataWriter writer) {
+        writers.add(writer);
+    }
+
+    PoiStreamingOptions getStreamingOptions() {
+        return options.getStreaming();
+    }
+
+    PoiSharedStrings getSharedStrings() {
+        return strings;
+    }
+
+    @Override
+    protected ZipArchiveOutputStream createArchiveOutputStream(OutputStream out) {
+        if (options.isDefaultCompression() && strings == null) {
+            return super.createArchiveOutputStream(out);
+        }
+        PoiZipArchiveOutputStream zip = new PoiZipArchiveOutputStream(out, options);
+        if (strings != null) {
+            // the table of the template workbook is empty as the sheets never write into it
+            zip.replace(getXSSFWorkbook().getSharedStringSource().getPackagePart().getPartName().getName().substring(1), strings::writeTo);
+        }
+        return zip;
+    }
+
+    @Override
+    public void write(OutputStream stream) throws IOException {
+        if (fromTemplate) {
+            // the in-memory rows of the template would be held uncompressed in the heap while the file is written
+            super.write(stream);
+            return;
+        }
+        // the template is empty so the temporary directory is only used by the spill store
+        writeAvoidingTempFiles(stream);
+    }
+
+    @Override
+    public boolean dispose() {
+        boolean success = true;
+        for (PoiSpillingSheetDataWriter writer : writers) {
+            try {
+                writer.release();
+            } catch (IOException e) {
+                System.getLogger(PoiStreamingWorkbook.class.getName()).log(System.Logger.Level.ERROR, "Exception releasing spilled rows", e);
+                success = false;
+            }
+        }
+        writers.clear();
+        return success;
+    }
+
+    private final PoiBuilderOptions options;
+    private final PoiSharedStrings strings;
+    private final List<PoiSpillingSheetDataWriter> writers = new ArrayList<>();
+    private final boolean fromTemplate;
+    private Consumer<Row> flushListener;
+}
@@ -0,0 +1,70 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import org.apache.poi.util.TempFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class PoiTempFileSpillStore implements PoiSpillStore {
+
+    private static final String PREFIX = "poi-sxssf-sheet";
+    private static final String SUFFIX = ".xml";
+
+    PoiTempFileSpillStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Spill createSpill() throws IOException {
+        if (directory == null) {
+            return new TempFileSpill(TempFile.createTempFile(PREFIX, SUFFIX).toPath());
+        }
+        return new TempFileSpill(Files.createTempFile(directory, PREFIX, SUFFIX));
+    }
+
+    private static class TempFileSpill implements Spill {
+
+        TempFileSpill(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            return Files.newOutputStream(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(file);
+        }
+
+        private final Path file;
+    }
+
+    private final Path directory;
+}
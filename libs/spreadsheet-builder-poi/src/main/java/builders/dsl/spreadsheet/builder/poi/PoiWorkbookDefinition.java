@@ -17,33 +17,79 @@
  */
 package builders.dsl.spreadsheet.builder.poi;
 
+import builders.dsl.spreadsheet.builder.api.Resolvable;
 import builders.dsl.spreadsheet.builder.api.WorkbookDefinition;
 import builders.dsl.spreadsheet.impl.AbstractWorkbookDefinition;
+import org.apache.poi.ss.formula.eval.NotImplementedException;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFFormulaEvaluator;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 class PoiWorkbookDefinition extends AbstractWorkbookDefinition implements WorkbookDefinition {
 
-    private final Workbook workbook;
+    // rough heap footprint of a cell including its row and XML bean, and of a cell style with its XF record
+    private static final long ESTIMATED_CELL_SIZE = 1024;
+    private static final long ESTIMATED_CELL_STYLE_SIZE = 2048;
+
+    private Workbook workbook;
+    private final PoiBuilderOptions options;
+    private final List<Cell> formulaCells = new ArrayList<>();
+    private final Map<Row, List<Resolvable>> streamedPending = new IdentityHashMap<>();
+    private final List<PoiSheetDefinition> sheets = new ArrayList<>();
+    private final PoiMergedBorders mergedBorders;
+    private final PoiPictureRegistry pictures;
+    private final PoiFontRegistry fonts;
+    private long cells;
+    private boolean switchedToStreaming;
+    private FormulaEvaluator streamingEvaluator;
 
     PoiWorkbookDefinition(Workbook workbook) {
+        this(workbook, PoiBuilderOptions.create());
+    }
+
+    PoiWorkbookDefinition(Workbook workbook, PoiBuilderOptions options) {
         if (!(workbook instanceof XSSFWorkbook) && !(workbook instanceof SXSSFWorkbook)) {
             throw new IllegalArgumentException("Only XSSF and SXSSF workbooks are supported");
         }
         this.workbook = workbook;
+        this.options = options;
+        this.mergedBorders = new PoiMergedBorders(workbook);
+        this.pictures = new PoiPictureRegistry(workbook, options);
+        this.fonts = new PoiFontRegistry(workbook);
+        if (workbook instanceof PoiStreamingWorkbook) {
+            ((PoiStreamingWorkbook) workbook).onFlush(this::beforeFlush);
+        }
     }
 
     @Override
     protected PoiSheetDefinition createSheet(String name) {
         Sheet sheet = workbook.getSheet(WorkbookUtil.createSafeSheetName(name));
-        return new PoiSheetDefinition(this, sheet != null ? sheet : workbook.createSheet(WorkbookUtil.createSafeSheetName(name)));
+        if (sheet != null) {
+            // the same sheet may be requested using another name which has the same safe name
+            for (PoiSheetDefinition existing : sheets) {
+                if (existing.getSheet() == sheet) {
+                    return existing;
+                }
+            }
+        }
+        PoiSheetDefinition definition = new PoiSheetDefinition(this, sheet != null ? sheet : workbook.createSheet(WorkbookUtil.createSafeSheetName(name)));
+        sheets.add(definition);
+        return definition;
     }
 
     @Override
@@ -55,10 +101,174 @@ class PoiWorkbookDefinition extends AbstractWorkbookDefinition implements Workbo
         return workbook;
     }
 
+    PoiMergedBorders getMergedBorders() {
+        return mergedBorders;
+    }
+
+    PoiPictureRegistry getPictures() {
+        return pictures;
+    }
+
+    PoiFontRegistry getFonts() {
+        return fonts;
+    }
+
+    void addCell() {
+        cells++;
+    }
+
+    /**
+     * Switches the in-memory workbook to the streaming mode once the estimated size of the cells and styles
+     * crosses the heap budget. Called before a new row is created so the row is already streamed.
+     *
+     * @param sheet the sheet creating the row
+     * @param zeroBasedRowNumber the row being created
+     */
+    void checkHeapBudget(PoiSheetDefinition sheet, int zeroBasedRowNumber) {
+        if (options.getHeapBudget() == 0 || !(workbook instanceof XSSFWorkbook)) {
+            return;
+        }
+
+        long estimatedSize = cells * ESTIMATED_CELL_SIZE + workbook.getNumCellStyles() * ESTIMATED_CELL_STYLE_SIZE;
+
+        if (estimatedSize < options.getHeapBudget()) {
+            return;
+        }
+
+        PoiStreamingWorkbook streaming = PoiStreamingWorkbook.continueWith((XSSFWorkbook) workbook, options);
+        for (PoiSheetDefinition definition : sheets) {
+            definition.switchToStreaming(streaming.getSXSSFSheet((XSSFSheet) definition.getSheet()));
+        }
+        streaming.onFlush(this::beforeFlush);
+        workbook = streaming;
+        switchedToStreaming = true;
+
+        PoiBuilderOptions.StreamingSwitchListener listener = options.getStreamingSwitchListener();
+        if (listener != null) {
+            listener.switched(sheet.getName(), zeroBasedRowNumber + 1, estimatedSize);
+        }
+    }
+
     void addPendingLink(String ref, PoiCellDefinition cell) {
         addPendingLink(new PoiPendingLink(cell, ref));
     }
 
+    /**
+     * Registers the image to be placed at the end of the build or when its streamed row is flushed, whichever
+     * comes first, so the size of the image is calculated from the actual heights of the rows.
+     *
+     * @param row the row of the image cell
+     * @param image the pending image
+     */
+    void addPendingImage(Row row, Resolvable image) {
+        boolean[] placed = new boolean[1];
+        Resolvable once = () -> {
+            if (!placed[0]) {
+                placed[0] = true;
+                image.resolve();
+            }
+        };
+        addPending(once);
+        addStreamedPending(row, once);
+    }
+
+    void close() {
+        pictures.close();
+    }
+
+    boolean isEvaluatingFormulas() {
+        return options.isEvaluatingFormulas();
+    }
+
+    void addFormulaCell(Cell cell) {
+        if (options.isEvaluatingFormulas() && !isFlushedByPoiWorkbook(cell.getRow())) {
+            formulaCells.add(cell);
+        }
+    }
+
+    /**
+     * Registers the pending formula or image of the streamed row to be resolved as soon as the row leaves the window
+     * at the latest. The resolvable must be safe to be resolved again at the end of the build.
+     *
+     * @param row the row of the cell
+     * @param pending the pending formula or image
+     */
+    void addStreamedPending(Row row, Resolvable pending) {
+        if (isFlushedByPoiWorkbook(row)) {
+            streamedPending.computeIfAbsent(row, r -> new ArrayList<>()).add(pending);
+        }
+    }
+
+    private boolean isFlushedByPoiWorkbook(Row row) {
+        return row.getSheet() instanceof SXSSFSheet && workbook instanceof PoiStreamingWorkbook;
+    }
+
+    /**
+     * Sets and evaluates the formulas and places the images of the streamed row before it leaves the window and can
+     * no longer be changed. The cached results are cleared for every row as the precedents may have been changed
+     * since the last flush.
+     */
+    private void beforeFlush(Row row) {
+        List<Resolvable> pending = streamedPending.remove(row);
+        if (pending != null) {
+            for (Resolvable resolvable : pending) {
+                resolvable.resolve();
+            }
+        }
+
+        if (!options.isEvaluatingFormulas() || switchedToStreaming) {
+            return;
+        }
+
+        boolean cleared = false;
+        for (Cell cell : row) {
+            if (cell.getCellType() != CellType.FORMULA) {
+                continue;
+            }
+            if (!cleared) {
+                if (streamingEvaluator == null) {
+                    streamingEvaluator = workbook.getCreationHelper().createFormulaEvaluator();
+                } else {
+                    streamingEvaluator.clearAllCachedResultValues();
+                }
+                cleared = true;
+            }
+            evaluate(streamingEvaluator, cell);
+        }
+    }
+
+    /**
+     * Stores the results of the resolved formulas as cached values. Single evaluator is shared for the whole workbook
+     * so the precedents are evaluated first and only once. The formulas of the streaming workbook are evaluated
+     * when their rows are flushed and nothing is evaluated once the workbook switched to the streaming mode.
+     */
+    void evaluateFormulas() {
+        if (formulaCells.isEmpty()) {
+            return;
+        }
+        if (switchedToStreaming) {
+            // neither the in-memory nor the streaming evaluator sees all the rows of the switched workbook
+            formulaCells.clear();
+            return;
+        }
+        FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+        for (Cell cell : formulaCells) {
+            if (cell.getSheet().getRow(cell.getRowIndex()) != cell.getRow()) {
+                continue;
+            }
+            evaluate(evaluator, cell);
+        }
+        formulaCells.clear();
+    }
+
+    private static void evaluate(FormulaEvaluator evaluator, Cell cell) {
+        try {
+            evaluator.evaluateFormulaCell(cell);
+        } catch (SXSSFFormulaEvaluator.RowFlushedException | NotImplementedException ignored) {
+            // the formula stays without the cached value and gets calculated by the reader
+        }
+    }
+
     short parseColor(String hexColor) {
         // TODO: implement
         throw new UnsupportedOperationException();
@@ -0,0 +1,334 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.builder.poi;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.util.TempFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * Zip stream honouring the compression options of the builder.
+ *
+ * Level <code>0</code> stores the entries without compression. If more threads are available the entries are split
+ * into blocks which are deflated in parallel, each block primed with the last 32 KiB of the previous one, and
+ * concatenated into a single deflate stream the same way <code>pigz</code> does. The compressed entry is spooled
+ * to memory or to a temporary file for large entries and copied to the archive once its size and checksum are known.
+ *
+ * The content of selected entries can be replaced while the package is being written, e.g. the shared strings
+ * produced by the streaming workbook outside of the POI model.
+ */
+class PoiZipArchiveOutputStream extends ZipArchiveOutputStream {
+
+    /**
+     * Content of the entry written instead of the original one.
+     */
+    @FunctionalInterface
+    interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private static final int BLOCK_SIZE = 1024 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int SPOOL_LIMIT = 16 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    PoiZipArchiveOutputStream(OutputStream out, PoiBuilderOptions options) {
+        super(out);
+        this.level = options.getCompressionLevel();
+        this.threads = options.getCompressionThreads();
+        if (level != 0) {
+            setLevel(level);
+        }
+    }
+
+    /**
+     * Replaces the content of the entry with given name when it is written.
+     * @param name the name of the entry
+     * @param content the content written instead of the original one
+     */
+    void replace(String name, Content content) {
+        replacements.put(name, content);
+    }
+
+    @Override
+    public void putArchiveEntry(ZipArchiveEntry entry) throws IOException {
+        Content content = replacements.remove(entry.getName());
+        if (content != null) {
+            // the original content is discarded and the replacement written once the entry is closed
+            replaced = entry;
+            replacement = content;
+            return;
+        }
+        if (level != 0 && threads == 1) {
+            super.putArchiveEntry(entry);
+            return;
+        }
+        current = entry;
+        crc.reset();
+        size = 0;
+        block = new byte[BLOCK_SIZE];
+        count = 0;
+        dictionary = null;
+        spool = new Spool();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (replaced != null) {
+            return;
+        }
+        if (current == null) {
+            super.write(b, off, len);
+            return;
+        }
+        while (len > 0) {
+            if (count == block.length) {
+                flushBlock(false);
+            }
+            int length = Math.min(len, block.length - count);
+            System.arraycopy(b, off, block, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    @Override
+    public void closeArchiveEntry() throws IOException {
+        if (replaced != null) {
+            ZipArchiveEntry entry = new ZipArchiveEntry(replaced.getName());
+            Content content = replacement;
+            replaced = null;
+            replacement = null;
+            putArchiveEntry(entry);
+            BufferedOutputStream buffered = new BufferedOutputStream(this, BUFFER_SIZE);
+            content.writeTo(buffered);
+            buffered.flush();
+            closeArchiveEntry();
+            return;
+        }
+        if (current == null) {
+            super.closeArchiveEntry();
+            return;
+        }
+
+        ZipArchiveEntry entry = current;
+        current = null;
+
+        try {
+            flushBlock(true);
+            while (!pending.isEmpty()) {
+                spool.write(await(pending.poll()));
+            }
+
+            entry.setMethod(level == 0 ? ZipEntry.STORED : ZipEntry.DEFLATED);
+            entry.setSize(size);
+            entry.setCrc(crc.getValue());
+            entry.setCompressedSize(spool.size);
+
+            try (InputStream raw = spool.open()) {
+                addRawArchiveEntry(entry, raw);
+            }
+        } finally {
+            pending.clear();
+            spool.delete();
+            spool = null;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            super.finish();
+        } finally {
+            shutdown();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void flushBlock(boolean last) throws IOException {
+        crc.update(block, 0, count);
+        size += count;
+
+        if (level == 0) {
+            spool.write(Arrays.copyOf(block, count));
+            count = 0;
+            return;
+        }
+
+        byte[] data = count == block.length ? block : Arrays.copyOf(block, count);
+        byte[] previous = dictionary;
+        dictionary = Arrays.copyOfRange(data, Math.max(0, data.length - DICTIONARY_SIZE), data.length);
+
+        if (threads == 1 || last && pending.isEmpty()) {
+            spool.write(deflate(data, previous, last));
+        } else {
+            pending.add(getExecutor().submit(() -> deflate(data, previous, last)));
+            while (pending.size() > threads * 2) {
+                spool.write(await(pending.poll()));
+            }
+        }
+
+        block = new byte[BLOCK_SIZE];
+        count = 0;
+    }
+
+    private byte[] deflate(byte[] data, byte[] previous, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (previous != null) {
+                deflater.setDictionary(previous);
+            }
+            deflater.setInput(data);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+            byte[] buffer = new byte[BUFFER_SIZE];
+
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                // sync flush aligns the block to a byte boundary so the blocks can be simply concatenated
+                int written;
+                do {
+                    written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, written);
+                } while (written == buffer.length);
+            }
+
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "spreadsheet-deflate");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static byte[] await(Future<byte[]> block) throws IOException {
+        try {
+            return block.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing the entry");
+        } catch (ExecutionException e) {
+            throw new IOException("Exception compressing the entry", e.getCause());
+        }
+    }
+
+    private static class Spool {
+
+        void write(byte[] data) throws IOException {
+            if (file == null && memory.size() + data.length > SPOOL_LIMIT) {
+                file = TempFile.createTempFile("spreadsheet-entry", ".tmp");
+                fileStream = new BufferedOutputStream(Files.newOutputStream(file.toPath()));
+                memory.writeTo(fileStream);
+                memory.reset();
+            }
+            if (file != null) {
+                fileStream.write(data);
+            } else {
+                memory.write(data);
+            }
+            size += data.length;
+        }
+
+        InputStream open() throws IOException {
+            if (file == null) {
+                return new ByteArrayInputStream(memory.toByteArray());
+            }
+            fileStream.close();
+            return new BufferedInputStream(Files.newInputStream(file.toPath()));
+        }
+
+        void delete() throws IOException {
+            if (file != null) {
+                fileStream.close();
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+
+        private final ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private File file;
+        private OutputStream fileStream;
+        private long size;
+    }
+
+    private final int level;
+    private final int threads;
+    private final CRC32 crc = new CRC32();
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private final Map<String, Content> replacements = new HashMap<>();
+    private ZipArchiveEntry replaced;
+    private Content replacement;
+    private ZipArchiveEntry current;
+    private byte[] block;
+    private int count;
+    private byte[] dictionary;
+    private long size;
+    private Spool spool;
+    private ExecutorService executor;
+}
@@ -0,0 +1,279 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.query.api.SpreadsheetCriteria;
+import builders.dsl.spreadsheet.query.api.SpreadsheetCriteriaResult;
+import builders.dsl.spreadsheet.query.api.WorkbookCriterion;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Evaluates the same criteria against many spreadsheet files concurrently.
+ * <p>
+ * Every file is opened and evaluated on its own virtual thread but at most {@link #concurrency(int)} files are open
+ * at the same time. The values extracted from the individual results are streamed in the order in which the files
+ * are evaluated and every spreadsheet is closed as soon as its value has been extracted so the memory needed does not
+ * depend on the number of the files.
+ */
+public final class MultiSpreadsheetQuery {
+
+    /**
+     * Opens the criteria for a single file.
+     */
+    @FunctionalInterface
+    public interface Opener {
+        SpreadsheetCriteria open(File file) throws IOException;
+    }
+
+    /**
+     * The value extracted from the result of the query of a single file or the exception thrown while the file was
+     * being opened or queried.
+     * @param <R> the type of the extracted value
+     */
+    public static final class FileResult<R> {
+
+        FileResult(File file, R value, Throwable error) {
+            this.file = file;
+            this.value = value;
+            this.error = error;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public R getValue() {
+            return value;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isFailed() {
+            return error != null;
+        }
+
+        @Override
+        public String toString() {
+            return "FileResult[" + file + "]=" + (error != null ? error : value);
+        }
+
+        private final File file;
+        private final R value;
+        private final Throwable error;
+    }
+
+    public static final int DEFAULT_CONCURRENCY = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    public static MultiSpreadsheetQuery create(Collection<File> files) {
+        return new MultiSpreadsheetQuery(new ArrayList<File>(files), DEFAULT_CONCURRENCY, PoiSpreadsheetCriteria.FACTORY::forFileLazy);
+    }
+
+    /**
+     * Creates the query for all the files matching given glob pattern such as <code>submissions/2024-??/*.xlsx</code>.
+     * The leading path segments without any wildcards are used as the base directory which is searched recursively.
+     * @param pattern the glob pattern
+     * @return the query for all the files matching the pattern sorted by their path
+     * @throws IOException if the base directory cannot be read
+     */
+    public static MultiSpreadsheetQuery glob(String pattern) throws IOException {
+        String normalized = pattern.replace(File.separatorChar, '/');
+        String[] segments = normalized.split("/", -1);
+
+        int wildcard = 0;
+        while (wildcard < segments.length && !hasWildcard(segments[wildcard])) {
+            wildcard++;
+        }
+
+        if (wildcard == segments.length) {
+            return create(Collections.singletonList(new File(pattern)));
+        }
+
+        String base = String.join("/", Arrays.asList(segments).subList(0, wildcard));
+        if (base.isEmpty() && normalized.startsWith("/")) {
+            base = "/";
+        }
+        String rest = String.join("/", Arrays.asList(segments).subList(wildcard, segments.length));
+
+        return glob(Paths.get(base.isEmpty() ? "." : base), rest);
+    }
+
+    /**
+     * Creates the query for all the files in given directory and its subdirectories whose path relative to the
+     * directory matches given glob pattern.
+     * @param directory the base directory
+     * @param pattern the glob pattern matched against the relative paths
+     * @return the query for all the files matching the pattern sorted by their path
+     * @throws IOException if the directory cannot be read
+     */
+    public static MultiSpreadsheetQuery glob(Path directory, String pattern) throws IOException {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            List<File> files = paths
+                .filter(Files::isRegularFile)
+                .filter(path -> matcher.matches(directory.relativize(path)))
+                .sorted()
+                .map(Path::toFile)
+                .collect(Collectors.toList());
+            return create(files);
+        }
+    }
+
+    private MultiSpreadsheetQuery(List<File> files, int concurrency, Opener opener) {
+        this.files = Collections.unmodifiableList(files);
+        this.concurrency = concurrency;
+        this.opener = opener;
+    }
+
+    /**
+     * @param limit maximal number of the files open at the same time
+     * @return new query with given concurrency limit
+     */
+    public MultiSpreadsheetQuery concurrency(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive but was " + limit);
+        }
+        return new MultiSpreadsheetQuery(files, limit, opener);
+    }
+
+    /**
+     * Uses given function to open the files. By default the files are opened using
+     * {@link PoiSpreadsheetCriteria#forFileLazy(File)} so only the sheets accepted by the criteria are parsed.
+     * @param opener the function opening the files
+     * @return new query using given function to open the files
+     */
+    public MultiSpreadsheetQuery opener(Opener opener) {
+        return new MultiSpreadsheetQuery(files, concurrency, opener);
+    }
+
+    public List<File> getFiles() {
+        return files;
+    }
+
+    /**
+     * Queries all the files concurrently. The extractor is called while the file is still open so it must not return
+     * any cells, rows or sheets but only the values read from them such as the count of the matching cells.
+     * <p>
+     * The returned stream should be closed if it is not consumed completely to cancel the remaining work.
+     * The exceptions are reported by the results of the files but the errors are rethrown by the stream.
+     * @param workbookCriterion the criteria
+     * @param extractor the function extracting the value from the result of each file
+     * @param <R> the type of the extracted values
+     * @return the stream of the results in the order in which the files were evaluated
+     */
+    public <R> Stream<FileResult<R>> query(Consumer<WorkbookCriterion> workbookCriterion, Function<? super SpreadsheetCriteriaResult, ? extends R> extractor) {
+        BlockingQueue<FileResult<R>> results = new LinkedBlockingQueue<FileResult<R>>();
+        Semaphore permits = new Semaphore(concurrency);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        for (File file : files) {
+            executor.execute(() -> {
+                try {
+                    results.add(evaluate(file, permits, workbookCriterion, extractor));
+                } catch (Error e) {
+                    // handed over to the consumer of the stream which would otherwise wait for the result forever
+                    results.add(new FileResult<R>(file, null, e));
+                }
+            });
+        }
+        executor.shutdown();
+
+        Iterator<FileResult<R>> iterator = new Iterator<FileResult<R>>() {
+            private int remaining = files.size();
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public FileResult<R> next() {
+                if (remaining <= 0) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    FileResult<R> result = results.take();
+                    remaining--;
+                    if (result.getError() instanceof Error) {
+                        executor.shutdownNow();
+                        throw (Error) result.getError();
+                    }
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    throw new IllegalStateException("Interrupted while waiting for the results", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliterator(iterator, files.size(), Spliterator.NONNULL), false)
+            .onClose(executor::shutdownNow);
+    }
+
+    private <R> FileResult<R> evaluate(File file, Semaphore permits, Consumer<WorkbookCriterion> workbookCriterion, Function<? super SpreadsheetCriteriaResult, ? extends R> extractor) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FileResult<R>(file, null, e);
+        }
+        try (SpreadsheetCriteria criteria = opener.open(file)) {
+            return new FileResult<R>(file, extractor.apply(criteria.query(workbookCriterion)), null);
+        } catch (Exception e) {
+            return new FileResult<R>(file, null, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static boolean hasWildcard(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('[') >= 0 || segment.indexOf('{') >= 0;
+    }
+
+    private final List<File> files;
+    private final int concurrency;
+    private final Opener opener;
+}
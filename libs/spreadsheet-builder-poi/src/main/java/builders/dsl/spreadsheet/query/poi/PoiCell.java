@@ -22,6 +22,10 @@ import builders.dsl.spreadsheet.api.CellStyle;
 import builders.dsl.spreadsheet.api.Comment;
 import builders.dsl.spreadsheet.impl.DefaultCommentDefinition;
 import builders.dsl.spreadsheet.impl.Utils;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.ss.usermodel.Name;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
@@ -55,6 +59,11 @@ class PoiCell implements Cell {
 
     @Override
     public <T> T read(Class<T> type) {
+        CellValue evaluated = getEvaluatedValue();
+        if (evaluated != null) {
+            return readEvaluated(type, evaluated);
+        }
+
         if (CharSequence.class.isAssignableFrom(type)) {
             return type.cast(xssfCell.getStringCellValue());
         }
@@ -105,6 +114,10 @@ class PoiCell implements Cell {
             case ERROR:
                 return xssfCell.getErrorCellString();
             case FORMULA:
+                CellValue evaluated = getEvaluatedValue();
+                if (evaluated != null) {
+                    return toValue(evaluated);
+                }
                 return xssfCell.getCellFormula();
             case NUMERIC:
                 return xssfCell.getNumericCellValue();
@@ -114,6 +127,97 @@ class PoiCell implements Cell {
         return xssfCell.getRawValue();
     }
 
+    /**
+     * Returns the result of the formula evaluated by the shared evaluator of the workbook. The result is computed
+     * only once for each cell and only if the formula evaluation is enabled for the workbook.
+     * @return the result of the formula or null if this is not a formula cell or the evaluation is not enabled
+     */
+    private CellValue getEvaluatedValue() {
+        if (evaluatedValue != null) {
+            return evaluatedValue;
+        }
+        if (xssfCell.getCellType() != CellType.FORMULA) {
+            return null;
+        }
+        PoiWorkbook workbook = row.getSheet().getWorkbook();
+        if (!workbook.isEvaluatingFormulas()) {
+            return null;
+        }
+        evaluatedValue = workbook.evaluate(xssfCell);
+        return evaluatedValue;
+    }
+
+    private static Object toValue(CellValue value) {
+        switch (value.getCellType()) {
+            case NUMERIC:
+                return value.getNumberValue();
+            case STRING:
+                return value.getStringValue();
+            case BOOLEAN:
+                return value.getBooleanValue();
+            case ERROR:
+                return FormulaError.forInt(value.getErrorValue()).getString();
+            default:
+                return "";
+        }
+    }
+
+    private <T> T readEvaluated(Class<T> type, CellValue value) {
+        if (CharSequence.class.isAssignableFrom(type)) {
+            if (value.getCellType() == CellType.BLANK) {
+                return type.cast("");
+            }
+            checkEvaluatedType(value, CellType.STRING);
+            return type.cast(value.getStringValue());
+        }
+
+        if (Boolean.class.isAssignableFrom(type)) {
+            checkEvaluatedType(value, CellType.BOOLEAN);
+            return type.cast(value.getBooleanValue());
+        }
+
+        if (Number.class.isAssignableFrom(type)) {
+            checkEvaluatedType(value, CellType.NUMERIC);
+            Double val = value.getNumberValue();
+            return type.cast(val);
+        }
+
+        if (Date.class.isAssignableFrom(type) || LocalDateTime.class.isAssignableFrom(type) || LocalDate.class.isAssignableFrom(type) || LocalTime.class.isAssignableFrom(type)) {
+            checkEvaluatedType(value, CellType.NUMERIC);
+        }
+
+        boolean date1904 = row.getSheet().getWorkbook().getWorkbook().isDate1904();
+
+        if (Date.class.isAssignableFrom(type)) {
+            return type.cast(DateUtil.getJavaDate(value.getNumberValue(), date1904));
+        }
+
+        LocalDateTime localDateTime = DateUtil.getLocalDateTime(value.getNumberValue(), date1904);
+
+        if (LocalDateTime.class.isAssignableFrom(type)) {
+            return type.cast(localDateTime);
+        }
+
+        if (LocalDate.class.isAssignableFrom(type)) {
+            return localDateTime != null ? type.cast(localDateTime.toLocalDate()) : null;
+        }
+
+        if (LocalTime.class.isAssignableFrom(type)) {
+            return localDateTime != null ? type.cast(localDateTime.toLocalTime()) : null;
+        }
+
+        throw new IllegalArgumentException("Cannot read value " + toValue(value) + " of cell as " + String.valueOf(type));
+    }
+
+    /**
+     * Fails the same way as reading the cached value of a formula cell of a different type.
+     */
+    private static void checkEvaluatedType(CellValue value, CellType expected) {
+        if (value.getCellType() != expected) {
+            throw new IllegalStateException("Cannot get a " + expected + " value from a " + value.getCellType() + " formula cell");
+        }
+    }
+
     @Override
     public Comment getComment() {
         XSSFComment comment = xssfCell.getCellComment();
@@ -143,7 +247,7 @@ class PoiCell implements Cell {
 
         List<String> possibleReferences = new ArrayList<String>(Arrays.asList(new CellReference(xssfCell).formatAsString(), generateRefersToFormula()));
         for (Name n : wb.getAllNames()) {
-            if (n.getSheetIndex() == -1 || n.getSheetIndex() == wb.getSheetIndex(xssfCell.getSheet())) {
+            if (n.getSheetIndex() == -1 || n.getSheetIndex() == row.getSheet().getIndex()) {
                 for (String reference : possibleReferences) {
                     if (normalizeFormulaReference(n.getRefersToFormula()).equalsIgnoreCase(normalizeFormulaReference(reference))) {
                         return n.getNameName();
@@ -199,7 +303,7 @@ class PoiCell implements Cell {
             return null;
         }
 
-        PoiCell existing = (PoiCell) row.getCellByNumber(getColumn());
+        PoiCell existing = row.getCellByNumber(getColumn());
 
         if (existing != null) {
             return existing;
@@ -216,7 +320,7 @@ class PoiCell implements Cell {
             return null;
         }
 
-        PoiCell existing = (PoiCell) row.getCellByNumber(getColumn());
+        PoiCell existing = row.getCellByNumber(getColumn());
 
         if (existing != null) {
             return existing;
@@ -232,7 +336,7 @@ class PoiCell implements Cell {
             return null;
         }
 
-        PoiCell existing = (PoiCell) row.getCellByNumber(getColumn() - 1);
+        PoiCell existing = row.getCellByNumber(getColumn() - 1);
 
         if (existing != null) {
             return existing;
@@ -248,7 +352,7 @@ class PoiCell implements Cell {
             return null;
         }
 
-        PoiCell existing = (PoiCell) row.getCellByNumber(getColumn() + getColspan());
+        PoiCell existing = row.getCellByNumber(getColumn() + getColspan());
 
         if (existing != null) {
             return existing;
@@ -269,7 +373,7 @@ class PoiCell implements Cell {
             return null;
         }
 
-        PoiCell existing = (PoiCell) row.getCellByNumber(getColumn() - 1);
+        PoiCell existing = row.getCellByNumber(getColumn() - 1);
 
         if (existing != null) {
             return existing;
@@ -290,7 +394,7 @@ class PoiCell implements Cell {
             return null;
         }
 
-        PoiCell existing = (PoiCell) row.getCellByNumber(getColumn() + 1);
+        PoiCell existing = row.getCellByNumber(getColumn() + 1);
 
         if (existing != null) {
             return existing;
@@ -311,7 +415,7 @@ class PoiCell implements Cell {
             return null;
         }
 
-        PoiCell existing = (PoiCell) row.getCellByNumber(getColumn() - 1);
+        PoiCell existing = row.getCellByNumber(getColumn() - 1);
 
         if (existing != null) {
             return existing;
@@ -332,7 +436,7 @@ class PoiCell implements Cell {
             return null;
         }
 
-        PoiCell existing = (PoiCell) row.getCellByNumber(getColumn() + 1);
+        PoiCell existing = row.getCellByNumber(getColumn() + 1);
 
         if (existing != null) {
             return existing;
@@ -375,7 +479,14 @@ class PoiCell implements Cell {
     private PoiCell createCellIfExists(XSSFCell cell) {
         if (cell != null) {
             final PoiRow number = row.getSheet().getRowByNumber(cell.getRowIndex() + 1);
-            return new PoiCell(number != null ? number : row.getSheet().createRowWrapper(cell.getRowIndex() + 1), cell);
+            if (number != null) {
+                PoiCell existing = number.getCellByNumber(cell.getColumnIndex() + 1);
+                if (existing != null) {
+                    return existing;
+                }
+                return new PoiCell(number, cell);
+            }
+            return new PoiCell(row.getSheet().createRowWrapper(cell.getRowIndex() + 1), cell);
         }
 
         return null;
@@ -388,4 +499,5 @@ class PoiCell implements Cell {
 
     private final PoiRow row;
     private final XSSFCell xssfCell;
+    private CellValue evaluatedValue;
 }
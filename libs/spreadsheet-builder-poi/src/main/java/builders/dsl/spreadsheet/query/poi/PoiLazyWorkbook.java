@@ -0,0 +1,549 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Keywords;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.PaperSize;
+import org.apache.poi.ss.usermodel.PrintOrientation;
+import org.apache.poi.ss.usermodel.SheetVisibility;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.CommentsTable;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTComment;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the workbook part of the package up front and parses the XML of the individual sheets only when they are
+ * accessed for the first time.
+ * <p>
+ * The sheets are read using SAX parser directly into the snapshot classes so no POI user model objects are created
+ * for the cells. The shared strings are kept encoded outside of the heap in {@link PoiSharedStringsArena} and they are
+ * only decoded when the value of the cell is read. The package stays open until the workbook is closed.
+ */
+final class PoiLazyWorkbook implements AutoCloseable {
+
+    static PoiSnapshotWorkbook open(File file) throws FileNotFoundException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException(file.getAbsolutePath());
+        }
+
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new RuntimeException("Exception opening workbook: " + file, e);
+        }
+
+        try {
+            PoiLazyWorkbook workbook = new PoiLazyWorkbook(pkg);
+            return new PoiSnapshotWorkbook(workbook.date1904, workbook.sheets, workbook);
+        } catch (IOException | OpenXML4JException | SAXException | RuntimeException e) {
+            pkg.revert();
+            throw new RuntimeException("Exception opening workbook: " + file, e);
+        }
+    }
+
+    private PoiLazyWorkbook(OPCPackage pkg) throws IOException, OpenXML4JException, SAXException {
+        this.pkg = pkg;
+        this.reader = new XSSFReader(pkg);
+        this.workbookPart = findWorkbookPart(pkg);
+
+        WorkbookHandler handler = new WorkbookHandler();
+        try (InputStream stream = reader.getWorkbookData()) {
+            parse(stream, handler);
+        }
+
+        this.date1904 = handler.date1904;
+        this.sheets = handler.sheets;
+        this.names = handler.names;
+    }
+
+    @Override
+    public void close() {
+        pkg.revert();
+    }
+
+    private PoiSharedStringsArena getStrings() throws IOException, SAXException, InvalidFormatException {
+        if (strings == null) {
+            PackageRelationshipCollection relationships = workbookPart.getRelationshipsByType(XSSFRelation.SHARED_STRINGS.getRelation());
+            if (relationships.size() == 0) {
+                strings = PoiSharedStringsArena.EMPTY;
+            } else {
+                PoiSharedStringsArena.Handler handler = new PoiSharedStringsArena.Handler();
+                try (InputStream stream = workbookPart.getRelatedPart(relationships.getRelationship(0)).getInputStream()) {
+                    parse(stream, handler);
+                }
+                strings = handler.build();
+            }
+        }
+        return strings;
+    }
+
+    private StylesTable getStyles() throws IOException, InvalidFormatException {
+        if (styles == null) {
+            styles = reader.getStylesTable();
+        }
+        return styles;
+    }
+
+    private Map<String, String> collectNames(int sheetIndex) {
+        Map<String, String> found = new HashMap<String, String>();
+        for (String[] name : names) {
+            if (name[1] != null && Integer.parseInt(name[1]) != sheetIndex) {
+                continue;
+            }
+            if (name[2] != null) {
+                found.putIfAbsent(PoiSnapshotSheetData.normalizeReference(name[2]), name[0]);
+            }
+        }
+        return found;
+    }
+
+    private static PackagePart findWorkbookPart(OPCPackage pkg) throws InvalidFormatException {
+        PackageRelationshipCollection relationships = pkg.getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT);
+        if (relationships.size() == 0) {
+            relationships = pkg.getRelationshipsByType(PackageRelationshipTypes.STRICT_CORE_DOCUMENT);
+        }
+        if (relationships.size() == 0) {
+            throw new InvalidFormatException("Package does not contain any workbook");
+        }
+        return pkg.getPart(relationships.getRelationship(0));
+    }
+
+    private static void parse(InputStream stream, DefaultHandler handler) throws IOException, SAXException {
+        try {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(handler);
+            parser.parse(new InputSource(stream));
+        } catch (ParserConfigurationException e) {
+            throw new SAXException("Cannot create XML parser", e);
+        }
+    }
+
+    private static boolean isTrue(String value) {
+        return "1".equals(value) || "true".equals(value);
+    }
+
+    private final class LazySheetSource implements PoiSnapshotSheetSource {
+
+        LazySheetSource(int index, String name, SheetVisibility visibility, String relationshipId) {
+            this.index = index;
+            this.name = name;
+            this.visibility = visibility;
+            this.relationshipId = relationshipId;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public SheetVisibility getVisibility() {
+            return visibility;
+        }
+
+        @Override
+        public PoiSnapshotSheetData load(PoiSnapshotSheet sheet, PoiSnapshotPool pool) {
+            try {
+                PackagePart part = workbookPart.getRelatedPart(workbookPart.getRelationship(relationshipId));
+                SheetHandler handler = new SheetHandler(sheet, pool, getStrings(), getStyles());
+                try (InputStream stream = part.getInputStream()) {
+                    parse(stream, handler);
+                }
+                return handler.build(collectNames(index), readComments(part), pool);
+            } catch (IOException | SAXException | InvalidFormatException | POIXMLException e) {
+                throw new RuntimeException("Exception reading sheet: " + name, e);
+            }
+        }
+
+        private Map<Long, String[]> readComments(PackagePart part) throws InvalidFormatException, IOException {
+            Map<Long, String[]> comments = new HashMap<Long, String[]>();
+            for (PackageRelationship relationship : part.getRelationshipsByType(XSSFRelation.SHEET_COMMENTS.getRelation())) {
+                CommentsTable table = new CommentsTable(part.getRelatedPart(relationship));
+                for (Iterator<CellAddress> it = table.getCellAddresses(); it.hasNext();) {
+                    CellAddress address = it.next();
+                    CTComment comment = table.getCTComment(address);
+                    if (comment != null) {
+                        String text = comment.getText() != null ? new XSSFRichTextString(comment.getText()).getString() : null;
+                        comments.put(PoiSnapshotSheetData.key(address.getRow(), address.getColumn()), new String[] {table.getAuthor(comment.getAuthorId()), text});
+                    }
+                }
+            }
+            return comments;
+        }
+
+        private final int index;
+        private final String name;
+        private final SheetVisibility visibility;
+        private final String relationshipId;
+    }
+
+    private final class WorkbookHandler extends DefaultHandler {
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "workbookPr":
+                    date1904 = isTrue(attributes.getValue("date1904"));
+                    break;
+                case "sheet":
+                    sheets.add(new LazySheetSource(sheets.size(), attributes.getValue("name"), toVisibility(attributes.getValue("state")), relationshipId(attributes)));
+                    break;
+                case "definedName":
+                    name = new String[] {attributes.getValue("name"), attributes.getValue("localSheetId"), null};
+                    text.setLength(0);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (name != null) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if ("definedName".equals(localName) && name != null) {
+                name[2] = text.toString();
+                names.add(name);
+                name = null;
+            }
+        }
+
+        private String relationshipId(Attributes attributes) {
+            for (int i = 0; i < attributes.getLength(); i++) {
+                if ("id".equals(attributes.getLocalName(i)) && !attributes.getURI(i).isEmpty()) {
+                    return attributes.getValue(i);
+                }
+            }
+            return null;
+        }
+
+        private SheetVisibility toVisibility(String state) {
+            if ("hidden".equals(state)) {
+                return SheetVisibility.HIDDEN;
+            }
+            if ("veryHidden".equals(state)) {
+                return SheetVisibility.VERY_HIDDEN;
+            }
+            return SheetVisibility.VISIBLE;
+        }
+
+        private final List<LazySheetSource> sheets = new ArrayList<LazySheetSource>();
+        private final List<String[]> names = new ArrayList<String[]>();
+        private final StringBuilder text = new StringBuilder();
+        private boolean date1904;
+        private String[] name;
+    }
+
+    private static final class SheetHandler extends DefaultHandler {
+
+        SheetHandler(PoiSnapshotSheet sheet, PoiSnapshotPool pool, PoiSharedStringsArena strings, StylesTable styles) {
+            this.sheet = sheet;
+            this.pool = pool;
+            this.strings = strings;
+            this.styles = styles;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    String r = attributes.getValue("r");
+                    rowNumber = r != null ? Integer.parseInt(r) : rowNumber + 1;
+                    column = 0;
+                    cells.clear();
+                    break;
+                case "c":
+                    String reference = attributes.getValue("r");
+                    column = reference != null ? new CellReference(reference).getCol() + 1 : column + 1;
+                    String s = attributes.getValue("s");
+                    style = s != null ? Integer.parseInt(s) : 0;
+                    type = attributes.getValue("t");
+                    value = null;
+                    formula = null;
+                    inline = null;
+                    break;
+                case "v":
+                    text.setLength(0);
+                    collecting = true;
+                    break;
+                case "f":
+                    text.setLength(0);
+                    collecting = true;
+                    formula = "";
+                    sharedIndex = "shared".equals(attributes.getValue("t")) ? attributes.getValue("si") : null;
+                    break;
+                case "is":
+                    inline = new StringBuilder();
+                    break;
+                case "rPh":
+                    phonetic = true;
+                    break;
+                case "t":
+                    if (inline != null && !phonetic) {
+                        text.setLength(0);
+                        collecting = true;
+                    }
+                    break;
+                case "mergeCell":
+                    CellRangeAddress region = CellRangeAddress.valueOf(attributes.getValue("ref"));
+                    mergedRegions.add(new int[] {region.getFirstRow(), region.getLastRow(), region.getFirstColumn(), region.getLastColumn()});
+                    break;
+                case "sheetProtection":
+                    locked = isTrue(attributes.getValue("sheet"));
+                    break;
+                case "pageSetup":
+                    String orientationValue = attributes.getValue("orientation");
+                    if ("portrait".equals(orientationValue)) {
+                        orientation = PoiPage.toOrientation(PrintOrientation.PORTRAIT);
+                    } else if ("landscape".equals(orientationValue)) {
+                        orientation = PoiPage.toOrientation(PrintOrientation.LANDSCAPE);
+                    }
+                    String paperValue = attributes.getValue("paperSize");
+                    int paperSize = paperValue != null ? Integer.parseInt(paperValue) : 1;
+                    if (paperSize >= 1 && paperSize <= PaperSize.values().length) {
+                        paper = PoiPage.toPaper(PaperSize.values()[paperSize - 1]);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                    value = text.toString();
+                    collecting = false;
+                    break;
+                case "f":
+                    formula = text.toString();
+                    collecting = false;
+                    if (sharedIndex != null) {
+                        if (formula.isEmpty()) {
+                            PoiSharedFormula master = sharedFormulas.get(sharedIndex);
+                            if (master != null) {
+                                formula = master.translate(rowNumber, column);
+                            }
+                        } else {
+                            sharedFormulas.put(sharedIndex, new PoiSharedFormula(formula, rowNumber, column));
+                        }
+                    }
+                    break;
+                case "t":
+                    if (collecting && inline != null) {
+                        inline.append(text);
+                        collecting = false;
+                    }
+                    break;
+                case "rPh":
+                    phonetic = false;
+                    break;
+                case "c":
+                    cells.add(createCell());
+                    break;
+                case "row":
+                    lastRowIndex = rowNumber - 1;
+                    PoiSnapshotRow row = new PoiSnapshotRow(sheet, rowNumber, cells.isEmpty() ? -1 : column, cells.size());
+                    for (PendingCell cell : cells) {
+                        row.add(new PoiSnapshotCell(row, cell.column, cell.type, cell.resultType, cell.text, cell.result, cell.number, cell.hasValue, cell.style, cell.sharedString));
+                    }
+                    rows.add(row);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        PoiSnapshotSheetData build(Map<String, String> names, Map<Long, String[]> comments, PoiSnapshotPool pool) {
+            return new PoiSnapshotSheetData(
+                locked,
+                new PoiSnapshotPage(orientation, paper),
+                names,
+                lastRowIndex,
+                mergedRegions.toArray(new int[mergedRegions.size()][]),
+                comments,
+                rows.toArray(new PoiSnapshotRow[rows.size()]),
+                strings,
+                pool
+            );
+        }
+
+        private PendingCell createCell() {
+            CellType cellType;
+            CellType resultType;
+            String cellText = null;
+            String result = null;
+            double number = 0;
+            int sharedString = -1;
+
+            if (type == null || "n".equals(type)) {
+                resultType = value == null && formula == null ? CellType.BLANK : CellType.NUMERIC;
+                number = value != null && !value.isEmpty() ? Double.parseDouble(value) : 0;
+            } else if ("s".equals(type)) {
+                resultType = CellType.STRING;
+                if (value != null && !value.isEmpty()) {
+                    sharedString = Integer.parseInt(value);
+                    if (sharedString >= strings.size()) {
+                        throw new IllegalStateException("Cell " + new CellReference(rowNumber - 1, column - 1).formatAsString() + " refers to missing shared string " + sharedString);
+                    }
+                } else {
+                    result = "";
+                }
+            } else if ("inlineStr".equals(type)) {
+                resultType = CellType.STRING;
+                result = pool.string(PoiSharedStringsArena.decodeEscapes(inline != null ? inline.toString() : value));
+            } else if ("str".equals(type)) {
+                resultType = CellType.STRING;
+                result = pool.string(value != null ? PoiSharedStringsArena.decodeEscapes(value) : "");
+            } else if ("b".equals(type)) {
+                resultType = CellType.BOOLEAN;
+                number = isTrue(value) ? 1 : 0;
+            } else if ("e".equals(type)) {
+                resultType = CellType.ERROR;
+                cellText = value;
+            } else {
+                throw new IllegalStateException("Unknown cell type " + type + " of cell " + new CellReference(rowNumber - 1, column - 1).formatAsString());
+            }
+
+            if (formula != null) {
+                cellType = CellType.FORMULA;
+                cellText = pool.string(formula);
+                if (resultType == CellType.BLANK) {
+                    resultType = CellType.NUMERIC;
+                }
+            } else {
+                cellType = resultType;
+                if (cellType == CellType.STRING) {
+                    cellText = result;
+                }
+            }
+
+            return new PendingCell(column, cellType, resultType, cellText, result, number, value != null, pool.style(styles.getStyleAt(style)), sharedString);
+        }
+
+        private final PoiSnapshotSheet sheet;
+        private final PoiSnapshotPool pool;
+        private final PoiSharedStringsArena strings;
+        private final StylesTable styles;
+
+        private final List<PoiSnapshotRow> rows = new ArrayList<PoiSnapshotRow>();
+        private final List<PendingCell> cells = new ArrayList<PendingCell>();
+        private final List<int[]> mergedRegions = new ArrayList<int[]>();
+        private final Map<String, PoiSharedFormula> sharedFormulas = new HashMap<String, PoiSharedFormula>();
+        private final StringBuilder text = new StringBuilder();
+
+        private boolean locked;
+        private Keywords.Orientation orientation;
+        private Keywords.Paper paper = Keywords.Paper.LETTER;
+        private int lastRowIndex = -1;
+
+        private int rowNumber;
+        private int column;
+        private int style;
+        private String type;
+        private String value;
+        private String formula;
+        private String sharedIndex;
+        private StringBuilder inline;
+        private boolean collecting;
+        private boolean phonetic;
+    }
+
+    /**
+     * Values of the cell which has been already parsed but the row it belongs to has not been created yet.
+     */
+    private static final class PendingCell {
+
+        PendingCell(int column, CellType type, CellType resultType, String text, String result, double number, boolean hasValue, PoiSnapshotCellStyle style, int sharedString) {
+            this.column = column;
+            this.type = type;
+            this.resultType = resultType;
+            this.text = text;
+            this.result = result;
+            this.number = number;
+            this.hasValue = hasValue;
+            this.style = style;
+            this.sharedString = sharedString;
+        }
+
+        private final int column;
+        private final CellType type;
+        private final CellType resultType;
+        private final String text;
+        private final String result;
+        private final double number;
+        private final boolean hasValue;
+        private final PoiSnapshotCellStyle style;
+        private final int sharedString;
+    }
+
+    private final OPCPackage pkg;
+    private final XSSFReader reader;
+    private final PackagePart workbookPart;
+    private final boolean date1904;
+    private final List<LazySheetSource> sheets;
+    private final List<String[]> names;
+    private PoiSharedStringsArena strings;
+    private StylesTable styles;
+}
@@ -16,6 +16,7 @@
  * limitations under the License.
  */
 package builders.dsl.spreadsheet.query.poi;
+import builders.dsl.spreadsheet.api.ColumnProjection;
 import builders.dsl.spreadsheet.api.Row;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.xssf.usermodel.XSSFCell;
@@ -29,6 +30,7 @@ class PoiRow implements Row {
     private final PoiSheet sheet;
 
     private Map<Integer, PoiCell> cells;
+    private List<builders.dsl.spreadsheet.api.Cell> cellList;
 
     PoiRow(PoiSheet sheet, XSSFRow xssfRow) {
         this.sheet = sheet;
@@ -36,14 +38,33 @@ class PoiRow implements Row {
     }
 
     public List<builders.dsl.spreadsheet.api.Cell> getCells() {
-        if (cells == null) {
-             cells = new LinkedHashMap<Integer, PoiCell>();
+        if (cellList == null) {
+            List<builders.dsl.spreadsheet.api.Cell> wrappers = new ArrayList<builders.dsl.spreadsheet.api.Cell>();
             for (Cell cell : xssfRow) {
-                cells.put(cell.getColumnIndex() + 1, new PoiCell(this, (XSSFCell) cell));
+                wrappers.add(getCellByNumber(cell.getColumnIndex() + 1));
             }
+            cellList = Collections.unmodifiableList(wrappers);
         }
 
-        return Collections.unmodifiableList(new ArrayList<builders.dsl.spreadsheet.api.Cell>(cells.values()));
+        return cellList;
+    }
+
+    @Override
+    public List<builders.dsl.spreadsheet.api.Cell> getCells(ColumnProjection projection) {
+        if (projection.isAll()) {
+            return getCells();
+        }
+        List<builders.dsl.spreadsheet.api.Cell> projected = new ArrayList<builders.dsl.spreadsheet.api.Cell>();
+        if (xssfRow.getFirstCellNum() < 0) {
+            return projected;
+        }
+        projection.forEachColumn(xssfRow.getFirstCellNum() + 1, xssfRow.getLastCellNum(), column -> {
+            PoiCell cell = getCellByNumber(column);
+            if (cell != null) {
+                projected.add(cell);
+            }
+        });
+        return projected;
     }
 
     @Override
@@ -81,11 +102,24 @@ class PoiRow implements Row {
         return getBelow(1);
     }
 
-    builders.dsl.spreadsheet.api.Cell getCellByNumber(int oneBasedColumnNumber) {
+    PoiCell getCellByNumber(int oneBasedColumnNumber) {
         if (cells == null) {
-            getCells();
+            cells = new HashMap<Integer, PoiCell>();
+        }
+        PoiCell existing = cells.get(oneBasedColumnNumber);
+        if (existing != null) {
+            return existing;
+        }
+        if (oneBasedColumnNumber < 1) {
+            return null;
+        }
+        XSSFCell cell = xssfRow.getCell(oneBasedColumnNumber - 1);
+        if (cell == null) {
+            return null;
         }
-        return cells.get(oneBasedColumnNumber);
+        PoiCell wrapper = new PoiCell(this, cell);
+        cells.put(oneBasedColumnNumber, wrapper);
+        return wrapper;
     }
 
     private PoiRow aboveOrBelow(int howMany) {
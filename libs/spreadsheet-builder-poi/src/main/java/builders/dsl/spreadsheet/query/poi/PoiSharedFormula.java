@@ -0,0 +1,181 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.EvaluationName;
+import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.formula.FormulaParseException;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaParsingWorkbook;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaRenderingWorkbook;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.SharedFormula;
+import org.apache.poi.ss.formula.SheetIdentifier;
+import org.apache.poi.ss.formula.ptg.Area3DPxg;
+import org.apache.poi.ss.formula.ptg.NamePtg;
+import org.apache.poi.ss.formula.ptg.NameXPtg;
+import org.apache.poi.ss.formula.ptg.NameXPxg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.Ref3DPxg;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Table;
+import org.apache.poi.ss.util.AreaReference;
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * Master formula of the shared formula read by {@link PoiLazyWorkbook}. The formula is parsed only once and the parsed
+ * tokens are shifted for every cell sharing the formula so only the relative references are changed, never the quoted
+ * sheet names or the string literals.
+ * <p>
+ * There is no POI workbook behind the lazy workbook so the sheets, names and external workbooks are kept as they are
+ * written in the formula. The formula which cannot be parsed this way, e.g. the one using structured references,
+ * is returned unchanged.
+ */
+final class PoiSharedFormula {
+
+    PoiSharedFormula(String formula, int row, int column) {
+        this.formula = formula;
+        this.row = row;
+        this.column = column;
+        this.ptgs = parse(formula);
+    }
+
+    /**
+     * Translates the formula to the cell at given position.
+     *
+     * @param targetRow the row of the cell in the same numbering as the row of the master cell
+     * @param targetColumn the column of the cell in the same numbering as the column of the master cell
+     * @return the formula of the cell
+     */
+    String translate(int targetRow, int targetColumn) {
+        if (ptgs == null || targetRow == row && targetColumn == column) {
+            return formula;
+        }
+        Ptg[] shifted = new SharedFormula(SpreadsheetVersion.EXCEL2007).convertSharedFormulas(ptgs, targetRow - row, targetColumn - column);
+        return FormulaRenderer.toFormulaString(DetachedWorkbook.INSTANCE, shifted);
+    }
+
+    private static Ptg[] parse(String formula) {
+        try {
+            return FormulaParser.parse(formula, DetachedWorkbook.INSTANCE, FormulaType.CELL, -1);
+        } catch (FormulaParseException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Workbook which keeps the sheet and the name references as they are written in the formula.
+     */
+    private enum DetachedWorkbook implements FormulaParsingWorkbook, FormulaRenderingWorkbook {
+
+        INSTANCE;
+
+        @Override
+        public EvaluationName getName(String name, int sheetIndex) {
+            return null;
+        }
+
+        @Override
+        public Name createName() {
+            throw new UnsupportedOperationException("Names cannot be created while reading the shared formula");
+        }
+
+        @Override
+        public Table getTable(String name) {
+            return null;
+        }
+
+        @Override
+        public Ptg getNameXPtg(String name, SheetIdentifier sheet) {
+            if (sheet == null) {
+                return new NameXPxg(null, name);
+            }
+            return new NameXPxg(getBookIndex(sheet), sheet.getSheetIdentifier().getName(), name);
+        }
+
+        @Override
+        public Ptg get3DReferencePtg(CellReference cell, SheetIdentifier sheet) {
+            return new Ref3DPxg(getBookIndex(sheet), sheet, cell);
+        }
+
+        @Override
+        public Ptg get3DReferencePtg(AreaReference area, SheetIdentifier sheet) {
+            return new Area3DPxg(getBookIndex(sheet), sheet, area);
+        }
+
+        @Override
+        public int getExternalSheetIndex(String sheetName) {
+            return -1;
+        }
+
+        @Override
+        public int getExternalSheetIndex(String workbookName, String sheetName) {
+            return -1;
+        }
+
+        @Override
+        public SpreadsheetVersion getSpreadsheetVersion() {
+            return SpreadsheetVersion.EXCEL2007;
+        }
+
+        @Override
+        public EvaluationWorkbook.ExternalSheet getExternalSheet(int externSheetIndex) {
+            return null;
+        }
+
+        @Override
+        public String getSheetFirstNameByExternSheet(int externSheetIndex) {
+            throw new UnsupportedOperationException("Sheet references are kept by name");
+        }
+
+        @Override
+        public String getSheetLastNameByExternSheet(int externSheetIndex) {
+            throw new UnsupportedOperationException("Sheet references are kept by name");
+        }
+
+        @Override
+        public String resolveNameXText(NameXPtg nameXPtg) {
+            throw new UnsupportedOperationException("Name references are kept by name");
+        }
+
+        @Override
+        public String getNameText(NamePtg namePtg) {
+            throw new UnsupportedOperationException("Name references are kept by name");
+        }
+
+        private static int getBookIndex(SheetIdentifier sheet) {
+            String bookName = sheet.getBookName();
+            if (bookName == null) {
+                return -1;
+            }
+            try {
+                // the external workbooks are referenced by their one based index, e.g. [1]Sheet1!A1
+                return Integer.parseInt(bookName);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("External workbook " + bookName + " is not referenced by index", e);
+            }
+        }
+    }
+
+    private final String formula;
+    private final int row;
+    private final int column;
+    private final Ptg[] ptgs;
+}
@@ -0,0 +1,193 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Shared strings table kept outside of the heap.
+ * <p>
+ * The strings are stored encoded in UTF-8 in a single direct buffer and only the offsets of the strings are kept
+ * on the heap. The strings are decoded every time they are requested and they can be compared with other strings
+ * without decoding them at all. The buffer is released together with the arena once it is no longer referenced.
+ */
+final class PoiSharedStringsArena {
+
+    private static final Pattern ESCAPE = Pattern.compile("_x([0-9A-Fa-f]{4})_");
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    static final PoiSharedStringsArena EMPTY = new PoiSharedStringsArena(ByteBuffer.allocateDirect(0), new int[] {0}, 0);
+
+    private PoiSharedStringsArena(ByteBuffer buffer, int[] offsets, int size) {
+        this.buffer = buffer;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return number of bytes occupied by the strings outside of the heap
+     */
+    long getEncodedSize() {
+        return offsets[size];
+    }
+
+    String get(int index) {
+        checkIndex(index);
+        byte[] bytes = new byte[offsets[index + 1] - offsets[index]];
+        buffer.get(offsets[index], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    boolean equalsAt(int index, byte[] utf8) {
+        checkIndex(index);
+        int offset = offsets[index];
+        if (offsets[index + 1] - offset != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (buffer.get(offset + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Shared string " + index + " does not exist, there are only " + size + " shared strings");
+        }
+    }
+
+    /**
+     * Decodes the <code>_xHHHH_</code> escapes used by the spreadsheet for characters not allowed in XML.
+     */
+    static String decodeEscapes(String value) {
+        if (value == null || !value.contains("_x")) {
+            return value;
+        }
+        Matcher matcher = ESCAPE.matcher(value);
+        StringBuilder decoded = new StringBuilder(value.length());
+        while (matcher.find()) {
+            matcher.appendReplacement(decoded, "");
+            decoded.append((char) Integer.parseInt(matcher.group(1), 16));
+        }
+        matcher.appendTail(decoded);
+        return decoded.toString();
+    }
+
+    /**
+     * SAX handler reading the shared strings part into the arena.
+     */
+    static final class Handler extends DefaultHandler {
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "sst":
+                    String unique = attributes.getValue("uniqueCount");
+                    if (unique != null) {
+                        offsets = new int[Math.max(Integer.parseInt(unique), 0) + 1];
+                    }
+                    break;
+                case "si":
+                    item.setLength(0);
+                    break;
+                case "rPh":
+                    phonetic = true;
+                    break;
+                case "t":
+                    collecting = !phonetic;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                item.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "t":
+                    collecting = false;
+                    break;
+                case "rPh":
+                    phonetic = false;
+                    break;
+                case "si":
+                    add(decodeEscapes(item.toString()).getBytes(StandardCharsets.UTF_8));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        PoiSharedStringsArena build() {
+            ByteBuffer result = ByteBuffer.allocateDirect(position);
+            result.put(buffer.duplicate().flip());
+            return new PoiSharedStringsArena(result.asReadOnlyBuffer(), offsets, size);
+        }
+
+        private void add(byte[] encoded) {
+            if (size + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, 16));
+            }
+            if ((long) position + encoded.length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Shared strings exceed the maximum size of " + Integer.MAX_VALUE + " bytes");
+            }
+            if (buffer.remaining() < encoded.length) {
+                long capacity = Math.max((long) buffer.capacity() * 2, (long) position + encoded.length);
+                ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(capacity, Integer.MAX_VALUE));
+                grown.put(buffer.duplicate().flip());
+                buffer = grown;
+            }
+            buffer.put(encoded);
+            position += encoded.length;
+            size++;
+            offsets[size] = position;
+        }
+
+        private final StringBuilder item = new StringBuilder();
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        private int[] offsets = new int[16];
+        private int size;
+        private int position;
+        private boolean collecting;
+        private boolean phonetic;
+    }
+
+    private final ByteBuffer buffer;
+    private final int[] offsets;
+    private final int size;
+}
@@ -19,6 +19,7 @@ package builders.dsl.spreadsheet.query.poi;
 
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.SheetVisibility;
+import org.apache.poi.xssf.usermodel.XSSFRow;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import builders.dsl.spreadsheet.api.Page;
 import builders.dsl.spreadsheet.api.Sheet;
@@ -29,12 +30,15 @@ class PoiSheet implements Sheet {
 
     private final XSSFSheet xssfSheet;
     private final PoiWorkbook workbook;
+    private final int index;
 
     private Map<Integer, PoiRow> rows;
+    private List<builders.dsl.spreadsheet.api.Row> rowList;
 
-    PoiSheet(PoiWorkbook workbook, XSSFSheet xssfSheet) {
+    PoiSheet(PoiWorkbook workbook, XSSFSheet xssfSheet, int index) {
         this.workbook = workbook;
         this.xssfSheet = xssfSheet;
+        this.index = index;
     }
 
     @Override
@@ -49,14 +53,16 @@ class PoiSheet implements Sheet {
 
     public List<builders.dsl.spreadsheet.api.Row> getRows() {
         if (rows == null) {
-            rows = new LinkedHashMap<Integer, PoiRow>();
+            Map<Integer, PoiRow> wrappers = new LinkedHashMap<Integer, PoiRow>();
             for (Row it : xssfSheet) {
                 int oneBasedIndex = it.getRowNum() + 1;
-                rows.put(oneBasedIndex, createRowWrapper(oneBasedIndex));
+                wrappers.put(oneBasedIndex, new PoiRow(this, (XSSFRow) it));
             }
+            rows = wrappers;
+            rowList = Collections.unmodifiableList(new ArrayList<builders.dsl.spreadsheet.api.Row>(wrappers.values()));
         }
 
-        return Collections.unmodifiableList(new ArrayList<builders.dsl.spreadsheet.api.Row>(rows.values()));
+        return rowList;
     }
 
     PoiRow getRowByNumber(int rowNumberStartingOne) {
@@ -68,37 +74,12 @@ class PoiSheet implements Sheet {
 
     @Override
     public Sheet getNext() {
-        int current = getWorkbook().getWorkbook().getSheetIndex(xssfSheet.getSheetName());
-
-        if (current == getWorkbook().getWorkbook().getNumberOfSheets() - 1) {
-            return null;
-        }
-        XSSFSheet next = getWorkbook().getWorkbook().getSheetAt(current + 1);
-
-        for (Sheet sheet : getWorkbook().getSheets()) {
-            if (sheet.getName().equals(next.getSheetName())) {
-                return sheet;
-            }
-        }
-
-
-        return new PoiSheet(getWorkbook(), next);
+        return workbook.getSheetAt(index + 1);
     }
 
     @Override
     public Sheet getPrevious() {
-        int current = getWorkbook().getWorkbook().getSheetIndex(xssfSheet.getSheetName());
-
-        if (current == 0) {
-            return null;
-        }
-        XSSFSheet next = getWorkbook().getWorkbook().getSheetAt(current - 1);
-        for (Sheet sheet : getWorkbook().getSheets()) {
-            if (sheet.getName().equals(next.getSheetName())) {
-                return sheet;
-            }
-        }
-        return new PoiSheet(getWorkbook(), next);
+        return workbook.getSheetAt(index - 1);
     }
 
     @Override
@@ -110,7 +91,15 @@ class PoiSheet implements Sheet {
         return xssfSheet;
     }
 
+    int getIndex() {
+        return index;
+    }
+
     PoiRow createRowWrapper(int oneBasedRowNumber) {
+        PoiRow existing = getRowByNumber(oneBasedRowNumber);
+        if (existing != null) {
+            return existing;
+        }
         return new PoiRow(this, xssfSheet.getRow(oneBasedRowNumber - 1));
     }
 
@@ -120,15 +109,15 @@ class PoiSheet implements Sheet {
     }
 
     public boolean isHidden() {
-        return xssfSheet.getWorkbook().getSheetVisibility(xssfSheet.getWorkbook().getSheetIndex(xssfSheet)) == SheetVisibility.HIDDEN;
+        return workbook.getWorkbook().getSheetVisibility(index) == SheetVisibility.HIDDEN;
     }
 
     public boolean isVisible() {
-        return xssfSheet.getWorkbook().getSheetVisibility(xssfSheet.getWorkbook().getSheetIndex(xssfSheet)) == SheetVisibility.VISIBLE;
+        return workbook.getWorkbook().getSheetVisibility(index) == SheetVisibility.VISIBLE;
     }
 
     public boolean isVeryHidden() {
-        return xssfSheet.getWorkbook().getSheetVisibility(xssfSheet.getWorkbook().getSheetIndex(xssfSheet)) == SheetVisibility.VERY_HIDDEN;
+        return workbook.getWorkbook().getSheetVisibility(index) == SheetVisibility.VERY_HIDDEN;
     }
 
 }
@@ -0,0 +1,43 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Border;
+import builders.dsl.spreadsheet.api.BorderStyle;
+import builders.dsl.spreadsheet.api.Color;
+
+final class PoiSnapshotBorder implements Border {
+
+    PoiSnapshotBorder(Border border) {
+        this.color = border.getColor();
+        this.style = border.getStyle();
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public BorderStyle getStyle() {
+        return style;
+    }
+
+    private final Color color;
+    private final BorderStyle style;
+}
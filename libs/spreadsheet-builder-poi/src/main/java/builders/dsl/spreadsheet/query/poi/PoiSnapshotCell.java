@@ -0,0 +1,383 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Cell;
+import builders.dsl.spreadsheet.api.CellStyle;
+import builders.dsl.spreadsheet.api.Comment;
+import builders.dsl.spreadsheet.api.EncodedStringCell;
+import builders.dsl.spreadsheet.impl.Utils;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+
+/**
+ * Immutable copy of a single cell. Reading methods follow the semantics of {@link PoiCell} including the exceptions
+ * thrown when the value cannot be read as requested type.
+ */
+final class PoiSnapshotCell implements EncodedStringCell {
+
+    PoiSnapshotCell(PoiSnapshotRow row, int column, CellType type, CellType resultType, String text, String result, double number, boolean hasValue, PoiSnapshotCellStyle style) {
+        this(row, column, type, resultType, text, result, number, hasValue, style, -1);
+    }
+
+    /**
+     * Creates new cell. If the shared string index is not negative the text of the string cell is decoded from
+     * the shared strings of the sheet only when it is requested.
+     */
+    PoiSnapshotCell(PoiSnapshotRow row, int column, CellType type, CellType resultType, String text, String result, double number, boolean hasValue, PoiSnapshotCellStyle style, int sharedString) {
+        this.row = row;
+        this.column = column;
+        this.type = type;
+        this.resultType = resultType;
+        this.text = text;
+        this.result = result;
+        this.number = number;
+        this.hasValue = hasValue;
+        this.style = style;
+        this.sharedString = sharedString;
+        this.colspan = 1;
+        this.rowspan = 1;
+    }
+
+    static PoiSnapshotCell copyOf(PoiSnapshotRow row, XSSFCell source, PoiSnapshotPool pool) {
+        CellType type = source.getCellType();
+        String text = null;
+        String result = null;
+        double number = 0;
+        CellType resultType = type;
+
+        switch (type) {
+            case STRING:
+                text = pool.string(source.getStringCellValue());
+                result = text;
+                break;
+            case NUMERIC:
+                number = source.getNumericCellValue();
+                break;
+            case BOOLEAN:
+                number = source.getBooleanCellValue() ? 1 : 0;
+                break;
+            case ERROR:
+                text = source.getErrorCellString();
+                break;
+            case FORMULA:
+                text = pool.string(source.getCellFormula());
+                resultType = source.getCachedFormulaResultType();
+                switch (resultType) {
+                    case STRING:
+                        result = pool.string(source.getStringCellValue());
+                        break;
+                    case NUMERIC:
+                        number = source.getNumericCellValue();
+                        break;
+                    case BOOLEAN:
+                        number = source.getBooleanCellValue() ? 1 : 0;
+                        break;
+                    default:
+                        break;
+                }
+                break;
+            default:
+                break;
+        }
+
+        return new PoiSnapshotCell(row, source.getColumnIndex() + 1, type, resultType, text, result, number, source.getRawValue() != null, pool.style(source.getCellStyle()));
+    }
+
+    @Override
+    public int getColumn() {
+        return column;
+    }
+
+    @Override
+    public String getColumnAsString() {
+        return Utils.toColumn(column);
+    }
+
+    @Override
+    public <T> T read(Class<T> type) {
+        if (CharSequence.class.isAssignableFrom(type)) {
+            return type.cast(readString());
+        }
+
+        if (Date.class.isAssignableFrom(type)) {
+            if (this.type == CellType.BLANK) {
+                return null;
+            }
+            return type.cast(DateUtil.getJavaDate(readNumber(), row.getSheet().getWorkbook().isDate1904()));
+        }
+
+        if (LocalDateTime.class.isAssignableFrom(type)) {
+            return type.cast(readLocalDateTime());
+        }
+
+        if (LocalDate.class.isAssignableFrom(type)) {
+            final LocalDateTime localDateTime = readLocalDateTime();
+            return localDateTime != null ? type.cast(localDateTime.toLocalDate()) : null;
+        }
+
+        if (LocalTime.class.isAssignableFrom(type)) {
+            final LocalDateTime localDateTime = readLocalDateTime();
+            return localDateTime != null ? type.cast(localDateTime.toLocalTime()) : null;
+        }
+
+        if (Boolean.class.isAssignableFrom(type)) {
+            return type.cast(readBoolean());
+        }
+
+        if (Number.class.isAssignableFrom(type)) {
+            Double val = readNumber();
+            return type.cast(val);
+        }
+
+        if (!hasValue) {
+            return null;
+        }
+
+        throw new IllegalArgumentException("Cannot read value " + getValue() + " of cell as " + String.valueOf(type));
+    }
+
+    @Override
+    public Object getValue() {
+        switch (type) {
+            case BLANK:
+                return "";
+            case BOOLEAN:
+                return number != 0;
+            case STRING:
+                return getText();
+            case ERROR:
+            case FORMULA:
+                return text;
+            case NUMERIC:
+                return number;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Comment getComment() {
+        return row.getSheet().getComment(row.getNumber(), column);
+    }
+
+    @Override
+    public CellStyle getStyle() {
+        return style;
+    }
+
+    @Override
+    public String getName() {
+        return row.getSheet().getName(row.getNumber(), column);
+    }
+
+    /**
+     * Sets the span of the merged region starting at this cell. Only called before the snapshot is published.
+     */
+    void setSpan(int colspan, int rowspan) {
+        this.colspan = colspan;
+        this.rowspan = rowspan;
+    }
+
+    @Override
+    public int getColspan() {
+        return colspan;
+    }
+
+    @Override
+    public int getRowspan() {
+        return rowspan;
+    }
+
+    @Override
+    public PoiSnapshotRow getRow() {
+        return row;
+    }
+
+    @Override
+    public Cell getAbove() {
+        PoiSnapshotRow above = row.getAbove();
+        if (above == null) {
+            return null;
+        }
+        return row.getSheet().findCell(above.getNumber(), column);
+    }
+
+    @Override
+    public Cell getBelow() {
+        PoiSnapshotRow below = row.getBelow(rowspan);
+        if (below == null) {
+            return null;
+        }
+        return row.getSheet().findCell(below.getNumber(), column);
+    }
+
+    @Override
+    public Cell getLeft() {
+        if (column == 1) {
+            return null;
+        }
+        return row.getSheet().findCell(row.getNumber(), column - 1);
+    }
+
+    @Override
+    public Cell getRight() {
+        if (column + colspan > row.getLastColumn()) {
+            return null;
+        }
+        return row.getSheet().findCell(row.getNumber(), column + colspan);
+    }
+
+    @Override
+    public Cell getAboveLeft() {
+        PoiSnapshotRow above = row.getAbove();
+        if (above == null || column == 1) {
+            return null;
+        }
+        return row.getSheet().findCell(above.getNumber(), column - 1);
+    }
+
+    @Override
+    public Cell getAboveRight() {
+        PoiSnapshotRow above = row.getAbove();
+        if (above == null || column == above.getLastColumn()) {
+            return null;
+        }
+        return row.getSheet().findCell(above.getNumber(), column + 1);
+    }
+
+    @Override
+    public Cell getBelowLeft() {
+        PoiSnapshotRow below = row.getBelow();
+        if (below == null || column == 1) {
+            return null;
+        }
+        return row.getSheet().findCell(below.getNumber(), column - 1);
+    }
+
+    @Override
+    public Cell getBelowRight() {
+        PoiSnapshotRow below = row.getBelow();
+        if (below == null || column == below.getLastColumn()) {
+            return null;
+        }
+        return row.getSheet().findCell(below.getNumber(), column + 1);
+    }
+
+    @Override
+    public boolean stringEquals(String value, byte[] utf8) {
+        if (sharedString >= 0) {
+            return row.getSheet().getData().getSharedStrings().equalsAt(sharedString, utf8);
+        }
+        try {
+            return value.equals(readString());
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private String getText() {
+        if (sharedString >= 0) {
+            return row.getSheet().getData().getSharedStrings().get(sharedString);
+        }
+        return text;
+    }
+
+    private String readString() {
+        switch (type) {
+            case BLANK:
+                return "";
+            case STRING:
+                return getText();
+            case FORMULA:
+                if (resultType == CellType.STRING) {
+                    return result;
+                }
+                throw typeMismatch(CellType.STRING, resultType);
+            default:
+                throw typeMismatch(CellType.STRING, type);
+        }
+    }
+
+    private double readNumber() {
+        switch (type) {
+            case BLANK:
+                return 0.0;
+            case NUMERIC:
+                return number;
+            case FORMULA:
+                if (resultType == CellType.NUMERIC) {
+                    return number;
+                }
+                throw typeMismatch(CellType.NUMERIC, resultType);
+            default:
+                throw typeMismatch(CellType.NUMERIC, type);
+        }
+    }
+
+    private boolean readBoolean() {
+        switch (type) {
+            case BLANK:
+                return false;
+            case BOOLEAN:
+                return number != 0;
+            case FORMULA:
+                if (resultType == CellType.BOOLEAN) {
+                    return number != 0;
+                }
+                throw typeMismatch(CellType.BOOLEAN, resultType);
+            default:
+                throw typeMismatch(CellType.BOOLEAN, type);
+        }
+    }
+
+    private LocalDateTime readLocalDateTime() {
+        if (type == CellType.BLANK) {
+            return null;
+        }
+        return DateUtil.getLocalDateTime(readNumber(), row.getSheet().getWorkbook().isDate1904());
+    }
+
+    private static IllegalStateException typeMismatch(CellType expected, CellType actual) {
+        return new IllegalStateException("Cannot get a " + expected + " value from a " + actual + " cell");
+    }
+
+    @Override
+    public String toString() {
+        return "Cell[" + row.getSheet().getName() + "!" + getColumnAsString() + String.valueOf(row.getNumber()) + "]=" + String.valueOf(getValue());
+    }
+
+    private final PoiSnapshotRow row;
+    private final int column;
+    private final CellType type;
+    private final CellType resultType;
+    private final String text;
+    private final String result;
+    private final double number;
+    private final boolean hasValue;
+    private final PoiSnapshotCellStyle style;
+    private final int sharedString;
+    private int colspan;
+    private int rowspan;
+}
@@ -0,0 +1,98 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Border;
+import builders.dsl.spreadsheet.api.CellStyle;
+import builders.dsl.spreadsheet.api.Color;
+import builders.dsl.spreadsheet.api.Font;
+import builders.dsl.spreadsheet.api.ForegroundFill;
+import builders.dsl.spreadsheet.api.Keywords;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class PoiSnapshotCellStyle implements CellStyle {
+
+    PoiSnapshotCellStyle(CellStyle style) {
+        this.foreground = style.getForeground();
+        this.background = style.getBackground();
+        this.fill = style.getFill();
+        this.indent = style.getIndent();
+        this.rotation = style.getRotation();
+        this.format = style.getFormat();
+
+        Font original = style.getFont();
+        this.font = original != null ? new PoiSnapshotFont(original) : null;
+
+        Map<Keywords.BorderSide, Border> sides = new HashMap<Keywords.BorderSide, Border>(Keywords.BorderSide.BORDER_SIDES.length);
+        for (Keywords.BorderSide side : Keywords.BorderSide.BORDER_SIDES) {
+            sides.put(side, new PoiSnapshotBorder(style.getBorder(side)));
+        }
+        this.borders = sides;
+    }
+
+    @Override
+    public Color getForeground() {
+        return foreground;
+    }
+
+    @Override
+    public Color getBackground() {
+        return background;
+    }
+
+    @Override
+    public ForegroundFill getFill() {
+        return fill;
+    }
+
+    @Override
+    public int getIndent() {
+        return indent;
+    }
+
+    @Override
+    public int getRotation() {
+        return rotation;
+    }
+
+    @Override
+    public String getFormat() {
+        return format;
+    }
+
+    @Override
+    public Font getFont() {
+        return font;
+    }
+
+    @Override
+    public Border getBorder(Keywords.BorderSide borderSide) {
+        return borders.get(borderSide);
+    }
+
+    private final Color foreground;
+    private final Color background;
+    private final ForegroundFill fill;
+    private final int indent;
+    private final int rotation;
+    private final String format;
+    private final Font font;
+    private final Map<Keywords.BorderSide, Border> borders;
+}
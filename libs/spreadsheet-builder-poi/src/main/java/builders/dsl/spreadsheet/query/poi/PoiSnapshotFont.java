@@ -0,0 +1,60 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Color;
+import builders.dsl.spreadsheet.api.Font;
+import builders.dsl.spreadsheet.api.FontStyle;
+
+import java.util.EnumSet;
+
+final class PoiSnapshotFont implements Font {
+
+    PoiSnapshotFont(Font font) {
+        this.color = font.getColor();
+        this.size = font.getSize();
+        this.name = font.getName();
+        this.styles = font.getStyles();
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public EnumSet<FontStyle> getStyles() {
+        // enum sets are mutable so every caller gets its own copy
+        return EnumSet.copyOf(styles);
+    }
+
+    private final Color color;
+    private final int size;
+    private final String name;
+    private final EnumSet<FontStyle> styles;
+}
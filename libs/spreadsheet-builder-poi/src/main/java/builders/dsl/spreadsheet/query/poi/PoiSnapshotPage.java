@@ -0,0 +1,46 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Keywords;
+import builders.dsl.spreadsheet.api.Page;
+
+final class PoiSnapshotPage implements Page {
+
+    PoiSnapshotPage(Page page) {
+        this(page.getOrientation(), page.getPaper());
+    }
+
+    PoiSnapshotPage(Keywords.Orientation orientation, Keywords.Paper paper) {
+        this.orientation = orientation;
+        this.paper = paper;
+    }
+
+    @Override
+    public Keywords.Orientation getOrientation() {
+        return orientation;
+    }
+
+    @Override
+    public Keywords.Paper getPaper() {
+        return paper;
+    }
+
+    private final Keywords.Orientation orientation;
+    private final Keywords.Paper paper;
+}
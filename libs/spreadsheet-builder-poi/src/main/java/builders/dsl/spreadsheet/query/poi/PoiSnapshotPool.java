@@ -0,0 +1,72 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deduplicates strings and styles while the snapshot is being materialized and keeps the statistics
+ * used to estimate the memory footprint of the snapshot.
+ */
+final class PoiSnapshotPool {
+
+    private final Map<String, String> strings = new HashMap<String, String>();
+    private final Map<Short, PoiSnapshotCellStyle> styles = new HashMap<Short, PoiSnapshotCellStyle>();
+
+    private long cells;
+    private long stringCharacters;
+
+    synchronized String string(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = strings.putIfAbsent(value, value);
+        if (existing != null) {
+            return existing;
+        }
+        stringCharacters += value.length();
+        return value;
+    }
+
+    synchronized PoiSnapshotCellStyle style(XSSFCellStyle style) {
+        if (style == null) {
+            return null;
+        }
+        return styles.computeIfAbsent(style.getIndex(), index -> new PoiSnapshotCellStyle(new PoiCellStyle(style)));
+    }
+
+    synchronized void countCells(long count) {
+        cells += count;
+    }
+
+    synchronized long getCellCount() {
+        return cells;
+    }
+
+    synchronized long getStringCount() {
+        return strings.size();
+    }
+
+    synchronized long getStringCharacters() {
+        return stringCharacters;
+    }
+
+}
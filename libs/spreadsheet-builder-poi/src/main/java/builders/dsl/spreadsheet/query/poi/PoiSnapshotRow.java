@@ -0,0 +1,124 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Cell;
+import builders.dsl.spreadsheet.api.Row;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+final class PoiSnapshotRow implements Row {
+
+    PoiSnapshotRow(PoiSnapshotSheet sheet, int number, int lastColumn, int size) {
+        this.sheet = sheet;
+        this.number = number;
+        this.lastColumn = lastColumn;
+        this.cells = new PoiSnapshotCell[size];
+        this.columns = new int[size];
+    }
+
+    static PoiSnapshotRow copyOf(PoiSnapshotSheet sheet, XSSFRow source, PoiSnapshotPool pool) {
+        PoiSnapshotRow row = new PoiSnapshotRow(sheet, source.getRowNum() + 1, source.getLastCellNum(), source.getPhysicalNumberOfCells());
+        for (org.apache.poi.ss.usermodel.Cell cell : source) {
+            row.add(PoiSnapshotCell.copyOf(row, (XSSFCell) cell, pool));
+        }
+        return row;
+    }
+
+    /**
+     * Adds next cell to the row. The cells must be added in the order of their columns and only before the snapshot
+     * is published.
+     */
+    void add(PoiSnapshotCell cell) {
+        cells[size] = cell;
+        columns[size] = cell.getColumn();
+        size++;
+    }
+
+    @Override
+    public int getNumber() {
+        return number;
+    }
+
+    @Override
+    public PoiSnapshotSheet getSheet() {
+        return sheet;
+    }
+
+    @Override
+    public List<Cell> getCells() {
+        return Collections.unmodifiableList(Arrays.<Cell>asList(cells));
+    }
+
+    @Override
+    public PoiSnapshotRow getAbove() {
+        return getAbove(1);
+    }
+
+    @Override
+    public PoiSnapshotRow getAbove(int howMany) {
+        return aboveOrBelow(-howMany);
+    }
+
+    @Override
+    public PoiSnapshotRow getBelow() {
+        return getBelow(1);
+    }
+
+    @Override
+    public PoiSnapshotRow getBelow(int howMany) {
+        return aboveOrBelow(howMany);
+    }
+
+    PoiSnapshotCell getCellByNumber(int oneBasedColumnNumber) {
+        int index = Arrays.binarySearch(columns, oneBasedColumnNumber);
+        return index < 0 ? null : cells[index];
+    }
+
+    int getLastColumn() {
+        return lastColumn;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private PoiSnapshotRow aboveOrBelow(int howMany) {
+        int zeroBased = number - 1 + howMany;
+        if (zeroBased < 0 || zeroBased > sheet.getLastRowIndex()) {
+            return null;
+        }
+        return sheet.getRowByNumber(number + howMany);
+    }
+
+    @Override
+    public String toString() {
+        return "Row[" + sheet.getName() + "!" + number + "]";
+    }
+
+    private final PoiSnapshotSheet sheet;
+    private final int number;
+    private final int lastColumn;
+    private final PoiSnapshotCell[] cells;
+    private final int[] columns;
+    private int size;
+}
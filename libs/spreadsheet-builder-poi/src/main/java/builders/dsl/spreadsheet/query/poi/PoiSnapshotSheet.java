@@ -0,0 +1,150 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Comment;
+import builders.dsl.spreadsheet.api.Page;
+import builders.dsl.spreadsheet.api.Row;
+import builders.dsl.spreadsheet.api.Sheet;
+import org.apache.poi.ss.usermodel.SheetVisibility;
+
+import java.util.List;
+
+/**
+ * Sheet of the snapshot. The name and the visibility are available immediately, the rest of the sheet is loaded
+ * from the source when it is accessed for the first time.
+ */
+final class PoiSnapshotSheet implements Sheet {
+
+    PoiSnapshotSheet(PoiSnapshotWorkbook workbook, int index, PoiSnapshotSheetSource source) {
+        this.workbook = workbook;
+        this.index = index;
+        this.name = source.getName();
+        this.visibility = source.getVisibility();
+        this.source = source;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public PoiSnapshotWorkbook getWorkbook() {
+        return workbook;
+    }
+
+    @Override
+    public List<Row> getRows() {
+        return getData().getRows();
+    }
+
+    @Override
+    public Page getPage() {
+        return getData().getPage();
+    }
+
+    @Override
+    public Sheet getNext() {
+        return workbook.getSheetAt(index + 1);
+    }
+
+    @Override
+    public Sheet getPrevious() {
+        return workbook.getSheetAt(index - 1);
+    }
+
+    @Override
+    public boolean isLocked() {
+        return getData().isLocked();
+    }
+
+    @Override
+    public boolean isHidden() {
+        return visibility == SheetVisibility.HIDDEN;
+    }
+
+    @Override
+    public boolean isVisible() {
+        return visibility == SheetVisibility.VISIBLE;
+    }
+
+    @Override
+    public boolean isVeryHidden() {
+        return visibility == SheetVisibility.VERY_HIDDEN;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    boolean isLoaded() {
+        return data != null;
+    }
+
+    PoiSnapshotRow getRowByNumber(int rowNumberStartingOne) {
+        return getData().getRowByNumber(rowNumberStartingOne);
+    }
+
+    int getLastRowIndex() {
+        return getData().getLastRowIndex();
+    }
+
+    PoiSnapshotCell findCell(int oneBasedRow, int oneBasedColumn) {
+        return getData().findCell(oneBasedRow, oneBasedColumn);
+    }
+
+    Comment getComment(int oneBasedRow, int oneBasedColumn) {
+        return getData().getComment(oneBasedRow, oneBasedColumn);
+    }
+
+    String getName(int oneBasedRow, int oneBasedColumn) {
+        return getData().getName(name, oneBasedRow, oneBasedColumn);
+    }
+
+    PoiSnapshotSheetData getData() {
+        PoiSnapshotSheetData current = data;
+        if (current != null) {
+            return current;
+        }
+        return workbook.load(this);
+    }
+
+    /**
+     * Loads the data from the source. Called by the workbook while holding its lock.
+     */
+    PoiSnapshotSheetData load(PoiSnapshotPool pool) {
+        if (data == null) {
+            data = source.load(this, pool);
+            source = null;
+        }
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return "Sheet[" + name + "]";
+    }
+
+    private final PoiSnapshotWorkbook workbook;
+    private final int index;
+    private final String name;
+    private final SheetVisibility visibility;
+    private PoiSnapshotSheetSource source;
+    private volatile PoiSnapshotSheetData data;
+}
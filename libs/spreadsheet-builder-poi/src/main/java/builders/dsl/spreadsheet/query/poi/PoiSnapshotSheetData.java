@@ -0,0 +1,191 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Comment;
+import builders.dsl.spreadsheet.api.Page;
+import builders.dsl.spreadsheet.api.Row;
+import builders.dsl.spreadsheet.impl.DefaultCommentDefinition;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Contents of a single sheet of the snapshot. Merged regions are stored as zero based
+ * <code>{firstRow, lastRow, firstColumn, lastColumn}</code> arrays.
+ */
+final class PoiSnapshotSheetData {
+
+    PoiSnapshotSheetData(boolean locked, Page page, Map<String, String> names, int lastRowIndex, int[][] mergedRegions, Map<Long, String[]> comments, PoiSnapshotRow[] rows, PoiSnapshotPool pool) {
+        this(locked, page, names, lastRowIndex, mergedRegions, comments, rows, PoiSharedStringsArena.EMPTY, pool);
+    }
+
+    PoiSnapshotSheetData(boolean locked, Page page, Map<String, String> names, int lastRowIndex, int[][] mergedRegions, Map<Long, String[]> comments, PoiSnapshotRow[] rows, PoiSharedStringsArena sharedStrings, PoiSnapshotPool pool) {
+        this.locked = locked;
+        this.sharedStrings = sharedStrings;
+        this.page = page;
+        this.names = names;
+        this.lastRowIndex = lastRowIndex;
+        this.mergedRegions = mergedRegions;
+        this.comments = comments;
+        this.rows = rows;
+        this.rowNumbers = new int[rows.length];
+
+        long cells = 0;
+        for (int i = 0; i < rows.length; i++) {
+            rowNumbers[i] = rows[i].getNumber();
+            cells += rows[i].size();
+        }
+        pool.countCells(cells);
+
+        for (int[] region : mergedRegions) {
+            int colspan = region[3] - region[2] + 1;
+            int rowspan = region[1] - region[0] + 1;
+            for (int r = region[0]; r <= region[1]; r++) {
+                PoiSnapshotRow row = getRowByNumber(r + 1);
+                if (row == null) {
+                    continue;
+                }
+                for (int c = region[2]; c <= region[3] && c < row.getLastColumn(); c++) {
+                    PoiSnapshotCell cell = row.getCellByNumber(c + 1);
+                    if (cell != null) {
+                        cell.setSpan(colspan, rowspan);
+                    }
+                }
+            }
+        }
+    }
+
+    static PoiSnapshotSheetData copyOf(PoiSnapshotSheet sheet, XSSFSheet source, Map<String, String> names, PoiSnapshotPool pool) {
+        List<CellRangeAddress> regions = source.getMergedRegions();
+        int[][] merged = new int[regions.size()][];
+        for (int i = 0; i < merged.length; i++) {
+            CellRangeAddress region = regions.get(i);
+            merged[i] = new int[] {region.getFirstRow(), region.getLastRow(), region.getFirstColumn(), region.getLastColumn()};
+        }
+
+        Map<Long, String[]> comments = new HashMap<Long, String[]>();
+        for (Map.Entry<CellAddress, XSSFComment> entry : source.getCellComments().entrySet()) {
+            XSSFComment comment = entry.getValue();
+            String text = comment.getString() != null ? comment.getString().getString() : null;
+            comments.put(key(entry.getKey().getRow(), entry.getKey().getColumn()), new String[] {comment.getAuthor(), text});
+        }
+
+        PoiSnapshotRow[] rows = new PoiSnapshotRow[source.getPhysicalNumberOfRows()];
+        int i = 0;
+        for (org.apache.poi.ss.usermodel.Row row : source) {
+            rows[i++] = PoiSnapshotRow.copyOf(sheet, (XSSFRow) row, pool);
+        }
+
+        return new PoiSnapshotSheetData(source.isSheetLocked(), new PoiSnapshotPage(new PoiPage(source)), names, source.getLastRowNum(), merged, comments, rows, pool);
+    }
+
+    boolean isLocked() {
+        return locked;
+    }
+
+    Page getPage() {
+        return page;
+    }
+
+    List<Row> getRows() {
+        return Collections.unmodifiableList(Arrays.<Row>asList(rows));
+    }
+
+    PoiSharedStringsArena getSharedStrings() {
+        return sharedStrings;
+    }
+
+    int getLastRowIndex() {
+        return lastRowIndex;
+    }
+
+    PoiSnapshotRow getRowByNumber(int oneBasedRow) {
+        int found = Arrays.binarySearch(rowNumbers, oneBasedRow);
+        return found < 0 ? null : rows[found];
+    }
+
+    PoiSnapshotCell findCell(int oneBasedRow, int oneBasedColumn) {
+        PoiSnapshotRow row = getRowByNumber(oneBasedRow);
+        PoiSnapshotCell cell = row != null ? row.getCellByNumber(oneBasedColumn) : null;
+        if (cell != null) {
+            return cell;
+        }
+
+        for (int[] region : mergedRegions) {
+            if (region[0] <= oneBasedRow - 1 && region[1] >= oneBasedRow - 1 && region[2] <= oneBasedColumn - 1 && region[3] >= oneBasedColumn - 1) {
+                PoiSnapshotRow first = getRowByNumber(region[0] + 1);
+                return first != null ? first.getCellByNumber(region[2] + 1) : null;
+            }
+        }
+
+        return null;
+    }
+
+    Comment getComment(int oneBasedRow, int oneBasedColumn) {
+        DefaultCommentDefinition definition = new DefaultCommentDefinition();
+        String[] comment = comments.get(key(oneBasedRow - 1, oneBasedColumn - 1));
+        if (comment != null) {
+            definition.author(comment[0]);
+            if (comment[1] != null) {
+                definition.text(comment[1]);
+            }
+        }
+        return definition;
+    }
+
+    String getName(String sheetName, int oneBasedRow, int oneBasedColumn) {
+        if (names.isEmpty()) {
+            return null;
+        }
+        String reference = new CellReference(oneBasedRow - 1, oneBasedColumn - 1).formatAsString();
+        String found = names.get(normalizeReference(reference));
+        if (found != null) {
+            return found;
+        }
+        return names.get(normalizeReference(sheetName + "!" + reference));
+    }
+
+    static String normalizeReference(String reference) {
+        return reference.replace("$", "").replace("'", "").toUpperCase(Locale.ROOT);
+    }
+
+    static long key(int zeroBasedRow, int zeroBasedColumn) {
+        return ((long) zeroBasedRow << 32) | zeroBasedColumn;
+    }
+
+    private final boolean locked;
+    private final Page page;
+    private final Map<String, String> names;
+    private final int lastRowIndex;
+    private final int[][] mergedRegions;
+    private final Map<Long, String[]> comments;
+    private final PoiSnapshotRow[] rows;
+    private final int[] rowNumbers;
+    private final PoiSharedStringsArena sharedStrings;
+}
@@ -0,0 +1,34 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import org.apache.poi.ss.usermodel.SheetVisibility;
+
+/**
+ * Source of the contents of a single sheet of the snapshot. The name and the visibility are known up front
+ * but the contents may be loaded only when the sheet is accessed for the first time.
+ */
+interface PoiSnapshotSheetSource {
+
+    String getName();
+
+    SheetVisibility getVisibility();
+
+    PoiSnapshotSheetData load(PoiSnapshotSheet sheet, PoiSnapshotPool pool);
+
+}
@@ -0,0 +1,171 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.api.Sheet;
+import builders.dsl.spreadsheet.api.Workbook;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.SheetVisibility;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the workbook which can be queried from multiple threads at once.
+ * <p>
+ * The snapshot created by {@link #create(XSSFWorkbook)} copies values, styles, merged regions, comments and names
+ * eagerly and the underlying POI workbook is no longer referenced afterwards. Snapshots created from other sources
+ * may load the sheets only when they are accessed for the first time. Equal strings and styles are shared between
+ * cells.
+ */
+final class PoiSnapshotWorkbook implements Workbook, AutoCloseable {
+
+    private static final long BYTES_PER_CELL = 72;
+    private static final long BYTES_PER_STRING = 56;
+    private static final long BYTES_PER_CHARACTER = 2;
+
+    static PoiSnapshotWorkbook create(XSSFWorkbook source) {
+        List<PoiSnapshotSheetSource> sources = new ArrayList<PoiSnapshotSheetSource>(source.getNumberOfSheets());
+        for (int i = 0; i < source.getNumberOfSheets(); i++) {
+            sources.add(new XSSFSheetSource(source, i));
+        }
+
+        PoiSnapshotWorkbook workbook = new PoiSnapshotWorkbook(source.isDate1904(), sources, null);
+        for (PoiSnapshotSheet sheet : workbook.sheets) {
+            workbook.load(sheet);
+        }
+        return workbook;
+    }
+
+    PoiSnapshotWorkbook(boolean date1904, List<? extends PoiSnapshotSheetSource> sources, AutoCloseable resource) {
+        this.date1904 = date1904;
+        this.resource = resource;
+
+        List<PoiSnapshotSheet> wrappers = new ArrayList<PoiSnapshotSheet>(sources.size());
+        for (PoiSnapshotSheetSource source : sources) {
+            wrappers.add(new PoiSnapshotSheet(this, wrappers.size(), source));
+        }
+        this.sheets = Collections.unmodifiableList(wrappers);
+    }
+
+    @Override
+    public List<Sheet> getSheets() {
+        return Collections.<Sheet>unmodifiableList(sheets);
+    }
+
+    PoiSnapshotSheet getSheetAt(int index) {
+        if (index < 0 || index >= sheets.size()) {
+            return null;
+        }
+        return sheets.get(index);
+    }
+
+    boolean isDate1904() {
+        return date1904;
+    }
+
+    long getCellCount() {
+        return pool.getCellCount();
+    }
+
+    long getStringCount() {
+        return pool.getStringCount();
+    }
+
+    /**
+     * Returns rough estimate of the heap retained by the loaded sheets of this snapshot in bytes.
+     *
+     * The estimate counts about 72 bytes per cell (the cell object and its slot in the row arrays)
+     * plus the distinct strings which are shared between cells. Styles are deduplicated and are not counted.
+     *
+     * @return rough estimate of the heap retained by this snapshot in bytes
+     */
+    long getEstimatedSize() {
+        return pool.getCellCount() * BYTES_PER_CELL + pool.getStringCount() * BYTES_PER_STRING + pool.getStringCharacters() * BYTES_PER_CHARACTER;
+    }
+
+    synchronized PoiSnapshotSheetData load(PoiSnapshotSheet sheet) {
+        if (closed && !sheet.isLoaded()) {
+            throw new IllegalStateException("Cannot load sheet " + sheet.getName() + " because the workbook has been already closed");
+        }
+        return sheet.load(pool);
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (resource != null) {
+            resource.close();
+        }
+    }
+
+    private static Map<String, String> collectNames(XSSFWorkbook source, int sheetIndex) {
+        Map<String, String> names = new HashMap<String, String>();
+        for (Name name : source.getAllNames()) {
+            if (name.getSheetIndex() != -1 && name.getSheetIndex() != sheetIndex) {
+                continue;
+            }
+            String formula = name.getRefersToFormula();
+            if (formula != null) {
+                names.putIfAbsent(PoiSnapshotSheetData.normalizeReference(formula), name.getNameName());
+            }
+        }
+        return names;
+    }
+
+    private static final class XSSFSheetSource implements PoiSnapshotSheetSource {
+
+        XSSFSheetSource(XSSFWorkbook workbook, int index) {
+            this.workbook = workbook;
+            this.index = index;
+        }
+
+        @Override
+        public String getName() {
+            return workbook.getSheetName(index);
+        }
+
+        @Override
+        public SheetVisibility getVisibility() {
+            return workbook.getSheetVisibility(index);
+        }
+
+        @Override
+        public PoiSnapshotSheetData load(PoiSnapshotSheet sheet, PoiSnapshotPool pool) {
+            XSSFSheet source = workbook.getSheetAt(index);
+            return PoiSnapshotSheetData.copyOf(sheet, source, collectNames(workbook, index), pool);
+        }
+
+        private final XSSFWorkbook workbook;
+        private final int index;
+    }
+
+    private final boolean date1904;
+    private final List<PoiSnapshotSheet> sheets;
+    private final AutoCloseable resource;
+    private final PoiSnapshotPool pool = new PoiSnapshotPool();
+    private boolean closed;
+}
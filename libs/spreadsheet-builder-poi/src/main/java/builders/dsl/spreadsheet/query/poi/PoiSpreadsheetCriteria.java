@@ -19,6 +19,9 @@ package builders.dsl.spreadsheet.query.poi;
 
 import builders.dsl.spreadsheet.query.api.SpreadsheetCriteria;
 import builders.dsl.spreadsheet.query.simple.SimpleSpreadsheetCriteria;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.*;
@@ -27,16 +30,173 @@ public enum PoiSpreadsheetCriteria {
 
     FACTORY;
 
+    /**
+     * Creates criteria for given file.
+     *
+     * The file is opened read-only with random access to the package entries so it is not buffered in memory
+     * as a whole. The workbook is read eagerly and the file is closed before this method returns.
+     *
+     * @param spreadsheet the spreadsheet file
+     * @return criteria for given file
+     * @throws FileNotFoundException if the file does not exist
+     * @see #openFile(File)
+     */
     public SpreadsheetCriteria forFile(File spreadsheet) throws FileNotFoundException {
-        return forStream(new FileInputStream(spreadsheet));
+        return forFile(spreadsheet, false);
     }
 
     public SpreadsheetCriteria forStream(InputStream stream) {
+        return forStream(stream, false);
+    }
+
+    /**
+     * Creates criteria for given file which optionally evaluates the formulas.
+     *
+     * If the evaluation is enabled the formula cells return the result of the formula instead of the formula itself
+     * and the result is also used when the cell is being read or matched by the criteria. Only the formula cells
+     * touched by the query are evaluated and the results are cached together with the results of the referenced
+     * formulas so each formula is evaluated at most once. This is useful for the spreadsheets which do not contain
+     * the cached results such as the ones generated by <code>PoiSpreadsheetBuilder</code>.
+     *
+     * @param spreadsheet the spreadsheet file
+     * @param evaluateFormulas whether the formulas should be evaluated
+     * @return criteria for given file
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public SpreadsheetCriteria forFile(File spreadsheet, boolean evaluateFormulas) throws FileNotFoundException {
+        XSSFWorkbook workbook = open(spreadsheet);
+        try {
+            return SimpleSpreadsheetCriteria.forWorkbook(new PoiWorkbook(workbook, evaluateFormulas));
+        } finally {
+            workbook.getPackage().revert();
+        }
+    }
+
+    /**
+     * Creates criteria for given file which keeps the file open until the criteria is closed.
+     *
+     * Unlike {@link #forFile(File)} the package is not released after the workbook has been read so the file
+     * must not be modified or deleted while the criteria is in use. Use it within <code>try-with-resources</code>
+     * block when the lifetime of the file handle should be managed explicitly.
+     *
+     * @param spreadsheet the spreadsheet file
+     * @return criteria which must be closed when no longer needed
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public SpreadsheetCriteria openFile(File spreadsheet) throws FileNotFoundException {
+        return openFile(spreadsheet, false);
+    }
+
+    /**
+     * Creates criteria for given file which optionally evaluates the formulas and keeps the file open until
+     * the criteria is closed.
+     *
+     * @param spreadsheet the spreadsheet file
+     * @param evaluateFormulas whether the formulas should be evaluated
+     * @return criteria which must be closed when no longer needed
+     * @throws FileNotFoundException if the file does not exist
+     * @see #openFile(File)
+     * @see #forFile(File, boolean)
+     */
+    public SpreadsheetCriteria openFile(File spreadsheet, boolean evaluateFormulas) throws FileNotFoundException {
+        return SimpleSpreadsheetCriteria.forWorkbook(new PoiWorkbook(open(spreadsheet), evaluateFormulas));
+    }
+
+    /**
+     * Creates criteria for given stream which optionally evaluates the formulas.
+     *
+     * @param stream the spreadsheet stream
+     * @param evaluateFormulas whether the formulas should be evaluated
+     * @return criteria which should be closed when no longer needed
+     * @see #forFile(File, boolean)
+     */
+    public SpreadsheetCriteria forStream(InputStream stream, boolean evaluateFormulas) {
+        try {
+            return SimpleSpreadsheetCriteria.forWorkbook(new PoiWorkbook(new XSSFWorkbook(stream), evaluateFormulas));
+        } catch (IOException e) {
+            throw new RuntimeException("Exception creating new workbook: " + stream, e);
+        }
+    }
+
+    /**
+     * Creates criteria backed by an immutable snapshot of the spreadsheet which can be queried from multiple threads.
+     *
+     * The whole spreadsheet including values, styles, merged regions, comments and names is materialized eagerly
+     * and the file is closed before this method returns. The snapshot retains roughly 72 bytes per cell plus
+     * the distinct strings so it is usually smaller than the POI workbook it has been created from.
+     *
+     * @param spreadsheet the spreadsheet file
+     * @return criteria which can be safely shared between threads
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public SpreadsheetCriteria forFileShared(File spreadsheet) throws FileNotFoundException {
+        return SimpleSpreadsheetCriteria.forWorkbook(snapshot(spreadsheet));
+    }
+
+    /**
+     * Creates criteria backed by an immutable snapshot of the spreadsheet which can be queried from multiple threads.
+     *
+     * The stream is fully consumed and closed before this method returns.
+     *
+     * @param stream the spreadsheet stream
+     * @return criteria which can be safely shared between threads
+     * @see #forFileShared(File)
+     */
+    public SpreadsheetCriteria forStreamShared(InputStream stream) {
+        return SimpleSpreadsheetCriteria.forWorkbook(snapshot(stream));
+    }
+
+    /**
+     * Creates criteria which reads only the workbook part of the file up front and parses each sheet only when
+     * the query accepts it for the first time, e.g. <code>sheet('Summary')</code> parses just the sheet named
+     * <code>Summary</code>.
+     *
+     * The parsed sheets are kept as immutable snapshots so the criteria can be queried from multiple threads.
+     * The file stays open until the criteria is closed.
+     *
+     * @param spreadsheet the spreadsheet file
+     * @return criteria which should be closed when no longer needed
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public SpreadsheetCriteria forFileLazy(File spreadsheet) throws FileNotFoundException {
+        return SimpleSpreadsheetCriteria.forWorkbook(PoiLazyWorkbook.open(spreadsheet));
+    }
+
+    PoiSnapshotWorkbook snapshot(File spreadsheet) throws FileNotFoundException {
+        XSSFWorkbook workbook = open(spreadsheet);
         try {
-            return SimpleSpreadsheetCriteria.forWorkbook(new PoiWorkbook(new XSSFWorkbook(stream)));
+            return PoiSnapshotWorkbook.create(workbook);
+        } finally {
+            workbook.getPackage().revert();
+        }
+    }
+
+    PoiSnapshotWorkbook snapshot(InputStream stream) {
+        try (InputStream input = stream; XSSFWorkbook workbook = new XSSFWorkbook(input)) {
+            return PoiSnapshotWorkbook.create(workbook);
         } catch (IOException e) {
             throw new RuntimeException("Exception creating new workbook: " + stream, e);
         }
     }
 
+    private static XSSFWorkbook open(File spreadsheet) throws FileNotFoundException {
+        if (!spreadsheet.isFile()) {
+            throw new FileNotFoundException(spreadsheet.getAbsolutePath());
+        }
+
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(spreadsheet, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new RuntimeException("Exception opening workbook: " + spreadsheet, e);
+        }
+
+        try {
+            return new XSSFWorkbook(pkg);
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw new RuntimeException("Exception creating new workbook: " + spreadsheet, e);
+        }
+    }
+
 }
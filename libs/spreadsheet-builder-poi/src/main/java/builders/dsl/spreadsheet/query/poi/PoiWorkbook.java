@@ -18,7 +18,10 @@
 package builders.dsl.spreadsheet.query.poi;
 
 import builders.dsl.spreadsheet.api.Workbook;
+import org.apache.poi.ss.usermodel.CellValue;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFFormulaEvaluator;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
@@ -26,12 +29,38 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-class PoiWorkbook implements Workbook {
+class PoiWorkbook implements Workbook, AutoCloseable {
 
     private final XSSFWorkbook workbook;
+    private final boolean evaluatingFormulas;
+
+    private List<PoiSheet> sheets;
+    private XSSFFormulaEvaluator evaluator;
 
     PoiWorkbook(XSSFWorkbook workbook) {
+        this(workbook, false);
+    }
+
+    PoiWorkbook(XSSFWorkbook workbook, boolean evaluatingFormulas) {
         this.workbook = workbook;
+        this.evaluatingFormulas = evaluatingFormulas;
+    }
+
+    boolean isEvaluatingFormulas() {
+        return evaluatingFormulas;
+    }
+
+    /**
+     * Evaluates the formula cell using the evaluator shared by all the cells of the workbook so the results of
+     * the referenced formula cells are evaluated only once.
+     * @param cell the formula cell
+     * @return the result of the formula
+     */
+    CellValue evaluate(XSSFCell cell) {
+        if (evaluator == null) {
+            evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+        }
+        return evaluator.evaluate(cell);
     }
 
     XSSFWorkbook getWorkbook() {
@@ -39,11 +68,39 @@ class PoiWorkbook implements Workbook {
     }
 
     public List<builders.dsl.spreadsheet.api.Sheet> getSheets() {
-        List<builders.dsl.spreadsheet.api.Sheet> sheets = new ArrayList<builders.dsl.spreadsheet.api.Sheet>();
-        for (Sheet s : workbook) {
-            sheets.add(new PoiSheet(this, (XSSFSheet) s));
+        return Collections.unmodifiableList(getSheetWrappers());
+    }
+
+    /**
+     * Returns the wrapper of the sheet at given zero based index or null if there is no such sheet.
+     * @param index zero based index of the sheet
+     * @return the wrapper of the sheet at given zero based index or null if there is no such sheet
+     */
+    PoiSheet getSheetAt(int index) {
+        List<PoiSheet> wrappers = getSheetWrappers();
+        if (index < 0 || index >= wrappers.size()) {
+            return null;
+        }
+        return wrappers.get(index);
+    }
+
+    /**
+     * Closes the underlying package without saving any changes.
+     */
+    @Override
+    public void close() {
+        workbook.getPackage().revert();
+    }
+
+    private List<PoiSheet> getSheetWrappers() {
+        if (sheets == null) {
+            List<PoiSheet> wrappers = new ArrayList<PoiSheet>(workbook.getNumberOfSheets());
+            for (Sheet s : workbook) {
+                wrappers.add(new PoiSheet(this, (XSSFSheet) s, wrappers.size()));
+            }
+            sheets = wrappers;
         }
-        return Collections.unmodifiableList(sheets);
+        return sheets;
     }
 
 }
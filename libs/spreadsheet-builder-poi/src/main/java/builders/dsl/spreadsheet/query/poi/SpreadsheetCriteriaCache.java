@@ -0,0 +1,209 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi;
+
+import builders.dsl.spreadsheet.query.api.SpreadsheetCriteria;
+import builders.dsl.spreadsheet.query.simple.SimpleSpreadsheetCriteria;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of spreadsheet criteria loaded from files.
+ * <p>
+ * The entries are keyed by the canonical path of the file and they are automatically reloaded when the modification
+ * time or the size of the file changes. The cached criteria are backed by the same immutable snapshots as the criteria
+ * created by {@link PoiSpreadsheetCriteria#forFileShared(File)} so they can be safely shared between threads.
+ * <p>
+ * The entries are evicted when the sum of their estimated sizes exceeds the maximum weight. The estimated size of each
+ * entry is derived from the number of cells and the number and length of the distinct strings of the spreadsheet.
+ */
+public final class SpreadsheetCriteriaCache {
+
+    private final long maximumWeight;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates new cache which keeps the criteria as long as their estimated size does not exceed given number of bytes.
+     * @param maximumWeight maximum estimated size of all cached spreadsheets in bytes
+     * @return new empty cache
+     */
+    public static SpreadsheetCriteriaCache create(long maximumWeight) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive but was " + maximumWeight);
+        }
+        return new SpreadsheetCriteriaCache(maximumWeight);
+    }
+
+    private SpreadsheetCriteriaCache(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * Returns the criteria for given file, loading the file if it is not cached yet or if it has changed since it
+     * has been loaded.
+     * @param spreadsheet the spreadsheet file
+     * @return criteria which can be safely shared between threads
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public SpreadsheetCriteria forFile(File spreadsheet) throws FileNotFoundException {
+        if (!spreadsheet.isFile()) {
+            throw new FileNotFoundException(spreadsheet.getAbsolutePath());
+        }
+
+        String key = key(spreadsheet);
+        long lastModified = spreadsheet.lastModified();
+        long length = spreadsheet.length();
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.lastModified == lastModified && entry.length == length) {
+                    hitCount++;
+                    return entry.criteria;
+                }
+                remove(key);
+            }
+            missCount++;
+        }
+
+        PoiSnapshotWorkbook workbook = PoiSpreadsheetCriteria.FACTORY.snapshot(spreadsheet);
+        Entry loaded = new Entry(lastModified, length, workbook.getEstimatedSize(), SimpleSpreadsheetCriteria.forWorkbook(workbook));
+
+        if (loaded.weight > maximumWeight) {
+            return loaded.criteria;
+        }
+
+        synchronized (this) {
+            Entry current = entries.get(key);
+            if (current != null) {
+                if (current.lastModified == lastModified && current.length == length) {
+                    return current.criteria;
+                }
+                remove(key);
+            }
+            entries.put(key, loaded);
+            weight += loaded.weight;
+            evict();
+        }
+
+        return loaded.criteria;
+    }
+
+    /**
+     * Removes the criteria for given file from the cache. The file does not have to exist anymore.
+     * @param spreadsheet the spreadsheet file
+     */
+    public synchronized void invalidate(File spreadsheet) {
+        remove(key(spreadsheet));
+    }
+
+    /**
+     * Removes all the criteria from the cache.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return sum of the estimated sizes of the cached spreadsheets in bytes
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SpreadsheetCriteriaCache[size=" + entries.size() + ", weight=" + weight + "/" + maximumWeight
+            + ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + "]";
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (weight > maximumWeight && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            weight -= eldest.weight;
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Resolves the canonical path of the file which is used as the key of the entry. The canonical path is resolved
+     * the same way whether the file exists or not so the entries of the deleted files can still be invalidated.
+     */
+    private static String key(File spreadsheet) {
+        try {
+            return spreadsheet.getCanonicalPath();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot resolve canonical path of " + spreadsheet, e);
+        }
+    }
+
+    private static final class Entry {
+
+        Entry(long lastModified, long length, long weight, SpreadsheetCriteria criteria) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.weight = weight;
+            this.criteria = criteria;
+        }
+
+        private final long lastModified;
+        private final long length;
+        private final long weight;
+        private final SpreadsheetCriteria criteria;
+    }
+}
@@ -17,12 +17,29 @@
  */
 package builders.dsl.spreadsheet.builder.poi
 
+import builders.dsl.spreadsheet.api.Cell
+import builders.dsl.spreadsheet.api.Keywords
 import builders.dsl.spreadsheet.builder.api.SpreadsheetBuilder
 import builders.dsl.spreadsheet.builder.tck.AbstractBuilderSpec
 import builders.dsl.spreadsheet.query.api.SpreadsheetCriteria
 import builders.dsl.spreadsheet.query.poi.PoiSpreadsheetCriteria
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import org.apache.poi.ss.usermodel.BorderStyle
+import org.apache.poi.xssf.usermodel.XSSFSheet
+import org.apache.poi.xssf.usermodel.XSSFWorkbook
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellFormulaType
 import spock.lang.TempDir
 
+import javax.imageio.ImageIO
+import java.awt.Color
+import java.awt.image.BufferedImage
+import java.time.Duration
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+
 class PoiExcelBuilderSpec extends AbstractBuilderSpec {
 
     @TempDir File tmp
@@ -33,6 +50,435 @@ class PoiExcelBuilderSpec extends AbstractBuilderSpec {
         tmpFile = new File(tmp, "sample${System.currentTimeMillis()}.xlsx")
     }
 
+    void 'columns define default style, width and visibility'() {
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile).build { w ->
+                w.style('money') { st -> st.format('#,##0.00') }
+                w.sheet('Columns') { s ->
+                    s.column('B') { c ->
+                        c.style('money')
+                        c.width(20)
+                    }
+                    s.column(3) { c -> c.hide() }
+                    s.row { r ->
+                        r.cell('Item')
+                        r.cell(1.5)
+                        r.cell('secret')
+                    }
+                    s.row { r ->
+                        r.cell('Other')
+                        r.cell { c ->
+                            c.value(2)
+                            c.style { st -> st.foreground('#ff0000') }
+                        }
+                    }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+            XSSFSheet sheet = workbook.getSheet('Columns')
+        then:
+            sheet.getColumnStyle(1).dataFormatString == '#,##0.00'
+            sheet.getRow(0).getCell(1).cellStyle.index == sheet.getColumnStyle(1).index
+            sheet.getRow(0).getCell(0).cellStyle.index == 0
+            sheet.getRow(1).getCell(1).cellStyle.index != sheet.getColumnStyle(1).index
+            sheet.getRow(1).getCell(1).cellStyle.dataFormatString == '#,##0.00'
+            sheet.getColumnWidth(1) == 20 * 255
+            sheet.isColumnHidden(2)
+            !sheet.isColumnHidden(1)
+        cleanup:
+            workbook?.close()
+    }
+
+    void 'adjacent merged regions are accepted'() {
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile).build { w ->
+                w.sheet('Merged') { s ->
+                    100.times {
+                        s.row { r ->
+                            r.cell { c -> c.colspan(2) }
+                            r.cell { c -> c.colspan(3) }
+                            r.cell()
+                            r.cell { c -> c.colspan(2) }
+                        }
+                    }
+                    s.row(101) { r -> r.cell('H') { c -> c.rowspan(3) } }
+                    s.row(102) { r -> r.cell('G') { c -> c.rowspan(2) } }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+        then:
+            workbook.getSheet('Merged').numMergedRegions == 302
+        cleanup:
+            workbook?.close()
+    }
+
+    void 'borders are drawn around merged regions'() {
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile).build { w ->
+                w.style('boxed') { st ->
+                    st.border { b ->
+                        b.style(Keywords.thin)
+                        b.color('#ff0000')
+                    }
+                }
+                w.sheet('Merged') { s ->
+                    50.times {
+                        s.row { r ->
+                            r.cell()
+                            r.cell { c ->
+                                if (inline) {
+                                    c.style { st ->
+                                        st.border { b ->
+                                            b.style(Keywords.thin)
+                                            b.color('#ff0000')
+                                        }
+                                    }
+                                } else {
+                                    c.style('boxed')
+                                }
+                                c.colspan(3)
+                                c.rowspan(3)
+                            }
+                        }
+                        s.row()
+                        s.row()
+                    }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+            XSSFSheet sheet = workbook.getSheet('Merged')
+        then:
+            sheet.getRow(0).getCell(1).cellStyle.borderTop == BorderStyle.THIN
+            sheet.getRow(0).getCell(2).cellStyle.borderTop == BorderStyle.THIN
+            sheet.getRow(0).getCell(2).cellStyle.borderBottom == BorderStyle.NONE
+            sheet.getRow(0).getCell(3).cellStyle.borderRight == BorderStyle.THIN
+            sheet.getRow(0).getCell(3).cellStyle.topBorderXSSFColor.ARGBHex == 'FFFF0000'
+            sheet.getRow(1).getCell(1).cellStyle.borderLeft == BorderStyle.THIN
+            sheet.getRow(1).getCell(1).cellStyle.borderTop == BorderStyle.NONE
+            !sheet.getRow(1).getCell(2)
+            sheet.getRow(2).getCell(2).cellStyle.borderBottom == BorderStyle.THIN
+            sheet.getRow(2).getCell(3).cellStyle.borderRight == BorderStyle.THIN
+            sheet.getRow(149).getCell(3).cellStyle.index == sheet.getRow(2).getCell(3).cellStyle.index
+            workbook.numCellStyles < maxStyles
+        cleanup:
+            workbook?.close()
+        where:
+            inline | maxStyles
+            false  | 12
+            true   | 12 + 50
+    }
+
+    void 'compression options are honoured'() {
+        given:
+            PoiBuilderOptions options = PoiBuilderOptions.create().compressionLevel(level).compressionThreads(threads)
+        when:
+            SpreadsheetBuilder builder = streaming ? PoiSpreadsheetBuilder.stream(tmpFile, options) : PoiSpreadsheetBuilder.create(tmpFile, options)
+            builder.build { w ->
+                w.sheet('Compressed') { s ->
+                    20000.times { int i ->
+                        s.row { r ->
+                            r.cell(i)
+                            r.cell("Row number ${i}")
+                        }
+                    }
+                }
+            }
+            ZipFile zip = new ZipFile(tmpFile)
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+        then:
+            zip.entries().toList().every { it.method == method }
+            workbook.getSheet('Compressed').lastRowNum == 19999
+            workbook.getSheet('Compressed').getRow(12345).getCell(1).stringCellValue == 'Row number 12345'
+        cleanup:
+            zip?.close()
+            workbook?.close()
+        where:
+            streaming | level | threads | method
+            false     | 0     | 1       | ZipEntry.STORED
+            false     | 9     | 4       | ZipEntry.DEFLATED
+            true      | 0     | 4       | ZipEntry.STORED
+            true      | 1     | 4       | ZipEntry.DEFLATED
+            true      | -1    | 1       | ZipEntry.DEFLATED
+    }
+
+    void 'fonts with the same attributes are shared'() {
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile).build { w ->
+                w.style('bold') { st -> st.font { f -> f.style(Keywords.bold) } }
+                w.sheet('Fonts') { s ->
+                    100.times {
+                        s.row { r ->
+                            r.cell { c ->
+                                c.text('Little ')
+                                c.text('Red') { f ->
+                                    f.color('#FF0000')
+                                    f.style(Keywords.bold)
+                                }
+                            }
+                            r.cell { c -> c.style { st -> st.font { f -> f.style(Keywords.bold) } } }
+                            r.cell { c -> c.style('bold') }
+                        }
+                    }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+        then:
+            workbook.numberOfFonts == 3
+        cleanup:
+            workbook?.close()
+    }
+
+    void 'same images are embedded only once'() {
+        given:
+            byte[] logo = createPng(Color.RED)
+            File logoFile = new File(tmp, 'logo.png')
+            logoFile.bytes = logo
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile).build { w ->
+                3.times { int i ->
+                    w.sheet("Sheet ${i}") { s ->
+                        s.row { r ->
+                            r.cell { c -> c.png(Keywords.image).from(logo) }
+                            r.cell { c -> c.png(Keywords.image).from(logoFile.absolutePath) }
+                            r.cell { c -> c.png(Keywords.image).from(new ByteArrayInputStream(createPng(Color.BLUE))) }
+                        }
+                    }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+        then:
+            workbook.allPictures.size() == 2
+            workbook.getSheet('Sheet 2').drawingPatriarch.shapes.size() == 3
+        cleanup:
+            workbook?.close()
+    }
+
+    void 'remote images are fetched once per url'() {
+        given:
+            AtomicInteger requests = new AtomicInteger()
+            HttpServer server = serve(requests) { createPng(it == '/red.png' ? Color.RED : Color.BLUE) }
+            String base = "http://localhost:${server.address.port}"
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile, PoiBuilderOptions.create().imageConcurrency(2)).build { w ->
+                w.sheet('Images') { s ->
+                    5.times {
+                        s.row { r ->
+                            r.cell { c -> c.png(Keywords.image).from("${base}/red.png") }
+                            r.cell { c -> c.png(Keywords.image).from("${base}/blue.png") }
+                        }
+                    }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+        then:
+            requests.get() == 2
+            workbook.allPictures.size() == 2
+            workbook.getSheet('Images').drawingPatriarch.shapes.size() == 10
+        cleanup:
+            workbook?.close()
+            server?.stop(0)
+    }
+
+    void 'remote images are limited by size and time'() {
+        given:
+            HttpServer server = serve(new AtomicInteger()) { String path ->
+                if (path == '/slow.png') {
+                    Thread.sleep(2000)
+                }
+                createPng(Color.RED)
+            }
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile, options).build { w ->
+                w.sheet('Images') { s ->
+                    s.row { r ->
+                        r.cell { c -> c.png(Keywords.image).from("http://localhost:${server.address.port}/${image}") }
+                    }
+                }
+            }
+        then:
+            IllegalStateException e = thrown(IllegalStateException)
+            e.cause.message.contains(message)
+        cleanup:
+            server?.stop(0)
+        where:
+            image      | options                                                         | message
+            'red.png'  | PoiBuilderOptions.create().imageSizeLimit(10)                   | 'exceeds the size limit of 10 bytes'
+            'slow.png' | PoiBuilderOptions.create().imageTimeout(Duration.ofMillis(200)) | 'Exception opening image stream'
+    }
+
+    void 'image timeout must fit into the connection timeout'() {
+        when:
+            PoiBuilderOptions.create().imageTimeout(timeout)
+        then:
+            thrown(IllegalArgumentException)
+        where:
+            timeout << [Duration.ofMillis(-1), Duration.ofMillis(Integer.MAX_VALUE + 1L), Duration.ofDays(365 * 1000)]
+    }
+
+    void 'images are loaded with the maximal size limit'() {
+        given:
+            File logoFile = new File(tmp, 'logo.png')
+            logoFile.bytes = createPng(Color.RED)
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile, PoiBuilderOptions.create().imageSizeLimit(Integer.MAX_VALUE)).build { w ->
+                w.sheet('Images') { s ->
+                    s.row { r ->
+                        r.cell { c -> c.png(Keywords.image).from(logoFile.absolutePath) }
+                    }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+        then:
+            workbook.allPictures.size() == 1
+        cleanup:
+            workbook?.close()
+    }
+
+    void 'overlapping merged regions are reported'() {
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile).build { w ->
+                w.sheet('Merged') { s ->
+                    s.row { r ->
+                        r.cell { c ->
+                            c.colspan(2)
+                            c.rowspan(2)
+                        }
+                    }
+                    s.row { r -> r.cell('B') { c -> c.colspan(2) } }
+                }
+            }
+        then:
+            IllegalStateException e = thrown(IllegalStateException)
+            e.cause.message == 'Cannot add merged region B2:C2 to sheet because it overlaps with an existing merged region (A1:B2).'
+    }
+
+    void 'workbook switches to streaming once the heap budget is crossed'() {
+        given:
+            List<String> sheets = []
+            List<Integer> rows = []
+            PoiBuilderOptions options = PoiBuilderOptions.create()
+                .heapBudget(1024 * 1024)
+                .onSwitchToStreaming { String sheet, int row, long estimatedSize ->
+                    sheets << sheet
+                    rows << row
+                }
+        when:
+            PoiSpreadsheetBuilder.create(tmpFile, options).build { w ->
+                w.sheet('Budget/Q1') { s ->
+                    s.row { r ->
+                        r.cell('Number')
+                        r.cell('Text')
+                    }
+                    2000.times { int i ->
+                        s.row { r ->
+                            r.cell(i)
+                            r.cell("Row number ${i}")
+                        }
+                    }
+                    s.row(2) { r -> r.cell('C') { c -> c.value('Edited') } }
+                }
+                w.sheet('Streamed') { s ->
+                    100.times { int i -> s.row { r -> r.cell(i) } }
+                }
+                w.sheet('Budget Q1') { s ->
+                    s.row(3) { r -> r.cell('C') { c -> c.value('Reopened') } }
+                    s.row(2003) { r -> r.cell('Appended') }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+        then:
+            sheets == ['Budget Q1']
+            rows.size() == 1
+            rows[0] > 2 && rows[0] < 2001
+            workbook.numberOfSheets == 2
+            workbook.getSheet('Budget Q1').lastRowNum == 2002
+            workbook.getSheet('Budget Q1').physicalNumberOfRows == 2002
+            workbook.getSheet('Budget Q1').getRow(1).getCell(2).stringCellValue == 'Edited'
+            workbook.getSheet('Budget Q1').getRow(2).getCell(2).stringCellValue == 'Reopened'
+            workbook.getSheet('Budget Q1').getRow(1500).getCell(1).stringCellValue == 'Row number 1499'
+            workbook.getSheet('Budget Q1').getRow(2002).getCell(0).stringCellValue == 'Appended'
+            workbook.getSheet('Streamed').lastRowNum == 99
+        cleanup:
+            workbook?.close()
+    }
+
+    void 'column formula is declared once for the range of rows'() {
+        given:
+            PoiBuilderOptions options = PoiBuilderOptions.create().evaluateFormulas(evaluate)
+            SpreadsheetBuilder builder = streaming ? PoiSpreadsheetBuilder.stream(tmpFile, options) : PoiSpreadsheetBuilder.create(tmpFile, options)
+            builder.build { w ->
+                w.sheet('Formulas') { s ->
+                    s.formula('C', 2, 4, 'A2*B2')
+                    s.row { r ->
+                        r.cell('A')
+                        r.cell('B')
+                        r.cell('A*B')
+                    }
+                    (1..3).each { int n ->
+                        s.row { r ->
+                            r.cell(n)
+                            r.cell(n * 10)
+                        }
+                    }
+                }
+            }
+        when:
+            SpreadsheetCriteria plain = PoiSpreadsheetCriteria.FACTORY.forFile(tmpFile)
+            SpreadsheetCriteria lazy = PoiSpreadsheetCriteria.FACTORY.forFileLazy(tmpFile)
+            List<Cell> cells = plain.all().cells.findAll { Cell cell -> cell.column == 3 } as List<Cell>
+        then:
+            cells*.value == ['A*B', 'A2*B2', 'A3*B3', 'A4*B4']
+            lazy.all().cells.findAll { Cell cell -> cell.column == 3 }*.value == ['A*B', 'A2*B2', 'A3*B3', 'A4*B4']
+            !evaluate || cells.drop(1)*.read(Number) == [10d, 40d, 90d]
+            new XSSFWorkbook(tmpFile).withCloseable { XSSFWorkbook workbook ->
+                workbook.getSheet('Formulas').getRow(3).getCell(2).CTCell.f.t == STCellFormulaType.SHARED
+            } == (!streaming && !evaluate)
+        cleanup:
+            lazy?.close()
+        where:
+            streaming | evaluate
+            false     | false
+            false     | true
+            true      | false
+            true      | true
+    }
+
+    void 'column formula cannot be declared for the rows already written'() {
+        when:
+            PoiSpreadsheetBuilder.stream(tmpFile).build { w ->
+                w.sheet('Formulas') { s ->
+                    200.times { int n ->
+                        s.row { r -> r.cell(n) }
+                    }
+                    s.formula('B', 2, 300, 'A2*2')
+                }
+            }
+        then:
+            IllegalStateException e = thrown(IllegalStateException)
+            e.message.contains('A2*2')
+    }
+
+    private static HttpServer serve(AtomicInteger requests, Closure<byte[]> images) {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.loopbackAddress, 0), 0)
+        server.executor = Executors.newCachedThreadPool()
+        server.createContext('/') { HttpExchange exchange ->
+            requests.incrementAndGet()
+            byte[] image = images.call(exchange.requestURI.path)
+            exchange.sendResponseHeaders(200, image.length)
+            exchange.responseBody.withStream { it.write(image) }
+        }
+        server.start()
+        return server
+    }
+
+    private static byte[] createPng(Color color) {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB)
+        image.setRGB(0, 0, color.RGB)
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        ImageIO.write(image, 'png', out)
+        return out.toByteArray()
+    }
+
     @Override
     protected SpreadsheetCriteria createCriteria() {
         return PoiSpreadsheetCriteria.FACTORY.forFile(tmpFile)
@@ -17,12 +17,18 @@
  */
 package builders.dsl.spreadsheet.builder.poi
 
+import builders.dsl.spreadsheet.api.Keywords
 import builders.dsl.spreadsheet.builder.api.SpreadsheetBuilder
 import builders.dsl.spreadsheet.builder.tck.AbstractBuilderSpec
 import builders.dsl.spreadsheet.query.api.SpreadsheetCriteria
 import builders.dsl.spreadsheet.query.poi.PoiSpreadsheetCriteria
+import org.apache.poi.xssf.usermodel.XSSFPicture
+import org.apache.poi.xssf.usermodel.XSSFWorkbook
 import spock.lang.TempDir
 
+import javax.imageio.ImageIO
+import java.awt.image.BufferedImage
+
 class PoiStreamingExcelBuilderSpec extends AbstractBuilderSpec {
 
     @TempDir File tmp
@@ -48,4 +54,124 @@ class PoiStreamingExcelBuilderSpec extends AbstractBuilderSpec {
         open tmpFile
     }
 
+    void 'streaming options are honoured'() {
+        given:
+            File spillDirectory = new File(tmp, 'spill')
+            spillDirectory.mkdirs()
+            PoiStreamingOptions streaming = PoiStreamingOptions.create().compressTempFiles(compress)
+            if (offHeap) {
+                streaming.spillStore(PoiSpillStore.offHeap())
+            } else {
+                streaming.tempDirectory(spillDirectory.toPath())
+            }
+            if (window) {
+                streaming.window(window)
+            } else {
+                streaming.window(Keywords.auto)
+            }
+        when:
+            PoiSpreadsheetBuilder.stream(tmpFile, PoiBuilderOptions.create().streaming(streaming)).build { w ->
+                2.times { int sheet ->
+                    w.sheet("Sheet ${sheet}") { s ->
+                        5000.times { int i ->
+                            s.row { r ->
+                                r.cell(i)
+                                r.cell("Row number ${i}")
+                            }
+                        }
+                    }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+        then:
+            workbook.getSheet('Sheet 1').lastRowNum == 4999
+            workbook.getSheet('Sheet 1').getRow(4321).getCell(1).stringCellValue == 'Row number 4321'
+            spillDirectory.list().length == 0
+        cleanup:
+            workbook?.close()
+        where:
+            offHeap | compress | window
+            false   | false    | 10
+            false   | true     | 10
+            true    | false    | 10
+            true    | true     | null
+    }
+
+    void 'strings are shared according to the strategy'() {
+        given:
+            List<String> countries = ['Czechia', 'Slovakia', ' Austria ', 'Bosnia & <Herzegovina>', 'Côte d\'Ivoire']
+            PoiStreamingOptions streaming = PoiStreamingOptions.create().strings(strategy)
+        when:
+            PoiSpreadsheetBuilder.stream(tmpFile, PoiBuilderOptions.create().streaming(streaming)).build { w ->
+                w.sheet('Strings') { s ->
+                    3000.times { int i ->
+                        s.row { r ->
+                            r.cell(countries[i % countries.size()])
+                            r.cell("Unique text ${i}")
+                        }
+                    }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+        then:
+            workbook.sharedStringSource.uniqueCount == unique
+            workbook.getSheet('Strings').getRow(2999).getCell(1).stringCellValue == 'Unique text 2999'
+            (0..<countries.size()).every { int i ->
+                workbook.getSheet('Strings').getRow(2000 + i).getCell(0).stringCellValue == countries[(2000 + i) % countries.size()]
+            }
+        cleanup:
+            workbook?.close()
+        where:
+            strategy                                     | unique
+            PoiStreamingOptions.StringStrategy.INLINE    | 0
+            PoiStreamingOptions.StringStrategy.SHARED    | 3005
+            PoiStreamingOptions.StringStrategy.ADAPTIVE  | 1005
+    }
+
+    void 'spilled rows are released when the build fails'() {
+        given:
+            File spillDirectory = new File(tmp, 'spill')
+            spillDirectory.mkdirs()
+            PoiStreamingOptions streaming = PoiStreamingOptions.create().window(10).tempDirectory(spillDirectory.toPath())
+        when:
+            PoiSpreadsheetBuilder.stream(tmpFile, PoiBuilderOptions.create().streaming(streaming)).build { w ->
+                w.sheet('Failing') { s ->
+                    100.times { int i -> s.row { r -> r.cell(i) } }
+                    throw new IllegalArgumentException('Failed')
+                }
+            }
+        then:
+            thrown(IllegalStateException)
+            spillDirectory.list().length == 0
+    }
+
+    void 'images of flushed rows are sized by the heights of their rows'() {
+        given:
+            File logoFile = new File(tmp, 'tall.png')
+            ImageIO.write(new BufferedImage(10, 100, BufferedImage.TYPE_INT_RGB), 'png', logoFile)
+        when:
+            PoiSpreadsheetBuilder.stream(tmpFile).build { w ->
+                w.sheet('Images') { s ->
+                    300.times { int i ->
+                        s.row { r ->
+                            r.cell { c ->
+                                c.height(80)
+                                if (i % 100 == 0) {
+                                    c.png(Keywords.image).from(logoFile.absolutePath)
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            XSSFWorkbook workbook = new XSSFWorkbook(tmpFile)
+            List<XSSFPicture> pictures = workbook.getSheet('Images').drawingPatriarch.shapes.findAll { it instanceof XSSFPicture }
+        then:
+            pictures.size() == 3
+            pictures.every { it.clientAnchor.row2 == it.clientAnchor.row1 }
+            pictures*.clientAnchor*.row1.sort() == [0, 100, 200]
+        cleanup:
+            workbook?.close()
+    }
+
 }
@@ -0,0 +1,107 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi
+
+import builders.dsl.spreadsheet.builder.poi.PoiSpreadsheetBuilder
+import builders.dsl.spreadsheet.query.simple.SimpleSpreadsheetCriteria
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.stream.Collectors
+
+class MultiSpreadsheetQuerySpec extends Specification {
+
+    @TempDir File tmp
+
+    void setup() {
+        (1..6).each { int month ->
+            File directory = new File(tmp, month % 2 ? 'odd' : 'even')
+            directory.mkdirs()
+            PoiSpreadsheetBuilder.create(new File(directory, "month-${month}.xlsx")).build { w ->
+                w.sheet('Amounts') { s ->
+                    (1..month).each { int i ->
+                        s.row { r -> r.cell(i) }
+                    }
+                }
+            }
+        }
+        new File(tmp, 'odd/notes.txt').text = 'not a spreadsheet'
+    }
+
+    void 'files matching the glob are queried concurrently'() {
+        given:
+            AtomicInteger running = new AtomicInteger()
+            AtomicInteger maxRunning = new AtomicInteger()
+            List<PoiSnapshotWorkbook> workbooks = Collections.synchronizedList([])
+            MultiSpreadsheetQuery query = MultiSpreadsheetQuery.glob(tmp.toPath(), '**.xlsx')
+                .concurrency(2)
+                .opener { File file ->
+                    PoiSnapshotWorkbook workbook = PoiLazyWorkbook.open(file)
+                    workbooks << workbook
+                    return SimpleSpreadsheetCriteria.forWorkbook(workbook)
+                }
+        when:
+            Map<String, Double> sums = query.query({ w -> w.sheet('Amounts') }) { result ->
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max)
+                Thread.sleep(20)
+                double sum = result.sum(1)
+                running.decrementAndGet()
+                return sum
+            }
+                .collect(Collectors.toMap({ it.file.name }, { it.value }))
+        then:
+            query.files*.name == ['month-2.xlsx', 'month-4.xlsx', 'month-6.xlsx', 'month-1.xlsx', 'month-3.xlsx', 'month-5.xlsx']
+            sums == [
+                'month-1.xlsx': 1d,
+                'month-2.xlsx': 3d,
+                'month-3.xlsx': 6d,
+                'month-4.xlsx': 10d,
+                'month-5.xlsx': 15d,
+                'month-6.xlsx': 21d,
+            ]
+            maxRunning.get() <= 2
+            workbooks.size() == 6
+            workbooks.every { it.@closed }
+    }
+
+    void 'failures are reported per file'() {
+        given:
+            MultiSpreadsheetQuery query = MultiSpreadsheetQuery.glob("${tmp.absolutePath}/odd/*".toString())
+        when:
+            List<MultiSpreadsheetQuery.FileResult<Long>> results = query.query({ w -> w.sheet('Amounts') }) { result -> result.count() }
+                .collect(Collectors.toList())
+                .sort { it.file.name }
+        then:
+            results*.file*.name == ['month-1.xlsx', 'month-3.xlsx', 'month-5.xlsx', 'notes.txt']
+            results*.value == [1L, 3L, 5L, null]
+            results*.failed == [false, false, false, true]
+    }
+
+    void 'errors are rethrown by the stream'() {
+        given:
+            MultiSpreadsheetQuery query = MultiSpreadsheetQuery.glob("${tmp.absolutePath}/odd/*.xlsx".toString())
+        when:
+            query.query({ w -> w.sheet('Amounts') }) { result -> throw new AssertionError('broken extractor') }
+                .collect(Collectors.toList())
+        then:
+            AssertionError error = thrown(AssertionError)
+            error.message == 'broken extractor'
+    }
+
+}
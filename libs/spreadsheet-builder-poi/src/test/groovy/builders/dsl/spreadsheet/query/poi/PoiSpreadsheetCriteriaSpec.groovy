@@ -0,0 +1,461 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi
+
+import builders.dsl.spreadsheet.api.Cell
+import builders.dsl.spreadsheet.api.ColumnProjection
+import builders.dsl.spreadsheet.api.EncodedStringCell
+import builders.dsl.spreadsheet.api.Row
+import builders.dsl.spreadsheet.api.Sheet
+import builders.dsl.spreadsheet.api.Workbook
+import builders.dsl.spreadsheet.builder.api.SpreadsheetBuilder
+import builders.dsl.spreadsheet.builder.poi.PoiBuilderOptions
+import builders.dsl.spreadsheet.builder.poi.PoiSpreadsheetBuilder
+import builders.dsl.spreadsheet.query.api.SpreadsheetCriteria
+import builders.dsl.spreadsheet.query.api.SpreadsheetCriteriaResult
+import builders.dsl.spreadsheet.query.simple.SimpleSpreadsheetCriteria
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.stream.Collectors
+
+class PoiSpreadsheetCriteriaSpec extends Specification {
+
+    @TempDir File tmp
+
+    File file
+
+    void setup() {
+        file = new File(tmp, 'criteria.xlsx')
+        PoiSpreadsheetBuilder.create(file).build { w ->
+            ['First', 'Second', 'Third'].each { String name ->
+                w.sheet(name) { s ->
+                    s.row { r ->
+                        r.cell(name)
+                        r.cell(1)
+                    }
+                    s.row { r ->
+                        r.cell("${name} 2")
+                        r.cell(2)
+                    }
+                }
+            }
+        }
+    }
+
+    void 'sheet wrappers are stable and navigable'() {
+        when:
+            SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFile(file)
+            List<Sheet> sheets = criteria.all().sheets as List<Sheet>
+        then:
+            sheets*.name == ['First', 'Second', 'Third']
+            sheets[0].next.is(sheets[1])
+            sheets[1].next.is(sheets[2])
+            sheets[2].next == null
+            sheets[2].previous.is(sheets[1])
+            sheets[0].previous == null
+            sheets[0].workbook.sheets[0].is(sheets[0])
+    }
+
+    void 'row and cell wrappers are reused between queries'() {
+        when:
+            SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFile(file)
+            def first = criteria.query { w -> w.sheet('Second') { s -> s.row(2) } }
+            def second = criteria.query { w -> w.sheet('Second') { s -> s.row(2) } }
+        then:
+            first.row.is(second.row)
+            first.cell.is(second.cell)
+            first.cell.right.is(second.cells[1])
+    }
+
+    void 'only the projected columns are read from the rows'() {
+        given:
+            Sheet second = PoiSpreadsheetCriteria.FACTORY.forFile(file).query { w -> w.sheet('Second') }.sheet
+            List<ColumnProjection> projections = []
+            List<Row> rows = second.rows.collect { Row row -> recording(row, projections) }
+            Sheet sheet = Stub(Sheet) {
+                getName() >> second.name
+                getRows() >> rows
+            }
+            Workbook workbook = Stub(Workbook) {
+                getSheets() >> [sheet]
+            }
+            SpreadsheetCriteria criteria = SimpleSpreadsheetCriteria.forWorkbook(workbook)
+        when:
+            def result = criteria.query { w -> w.sheet('Second') { s -> s.row { r -> r.cell('B') { c -> c.value(2) } } } }
+            Cell cell = result.cell
+        then:
+            result.columnProjection == ColumnProjection.of(2)
+            cell.read(Number) == 2
+            cell.left.read(String) == 'Second 2'
+            !projections.empty
+            projections.every { ColumnProjection projection -> projection == ColumnProjection.of(2) }
+    }
+
+    void 'whole rows are read when the criteria cannot be projected'() {
+        given:
+            SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFile(file)
+        expect:
+            criteria.query { w -> w.sheet { s -> s.row { r -> r.cell { c -> c.value(2) } } } }.columnProjection.all
+            criteria.query { w -> w.sheet { s -> s.row { r -> r.having { row -> row.number == 1 } } } }.columnProjection.all
+            criteria.query { w -> w.sheet { s -> s.row { r -> r.or { o -> o.cell(1).cell { c -> c.value(2) } } } } }.columnProjection.all
+            criteria.query { w -> w.sheet { s -> s.row { r -> r.or { o -> o.cell(1).cell(3) } } } }.columnProjection == ColumnProjection.of(1, 3)
+            criteria.query { w -> w.sheet { s -> s.row { r -> r.cell(2) { c -> c.value(2) } } } }.rows.size() == 3
+    }
+
+    void 'results are aggregated during the scan'() {
+        given:
+            SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFile(file)
+        when:
+            DoubleSummaryStatistics stats = criteria.all().stats('B')
+        then:
+            criteria.all().count() == 12
+            criteria.query { w -> w.sheet { s -> s.row { r -> r.cell { c -> c.value(2) } } } }.count() == 3
+            criteria.all().sum(2) == 9d
+            criteria.query { w -> w.sheet('Second') { s -> s.row { r -> r.cell('A') { c -> c.string('Second 2') } } } }.sum('B') == 2d
+            stats.count == 6
+            stats.min == 1d
+            stats.max == 2d
+            stats.average == 1.5d
+            criteria.all().groupBy(2, Collectors.counting()) == [(1d): 3L, (2d): 3L]
+            criteria.query { w -> w.sheet('Third') }.groupBy('A', Collectors.summingDouble { row -> row.cells[1].value as double }) == ['Third': 1d, 'Third 2': 2d]
+    }
+
+    void 'ordered results keep only the first cells'() {
+        given:
+            SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFileShared(file)
+            Comparator<Cell> byValue = Comparator.comparingDouble { Cell c -> (c.value as Number).doubleValue() }.reversed()
+            SpreadsheetCriteriaResult numbers = criteria.query { w -> w.sheet { s -> s.row { r -> r.cell(2) } } }
+        expect:
+            numbers.orderBy(byValue).cells*.value == [2d, 2d, 2d, 1d, 1d, 1d]
+            numbers.orderBy(byValue).limit(2).cells*.row*.sheet*.name == ['First', 'Second']
+            numbers.orderBy(byValue).limit(2).parallel().cells*.row*.sheet*.name == ['First', 'Second']
+            numbers.orderBy(byValue.reversed()).limit(4).parallel().cells*.value == [1d, 1d, 1d, 2d]
+            numbers.orderBy(byValue).cell.left.read(String) == 'First 2'
+            numbers.orderBy(byValue).limit(0).cells.empty
+    }
+
+    void 'formulas are evaluated when reading if enabled'() {
+        given:
+            File formulas = new File(tmp, 'formulas.xlsx')
+            PoiSpreadsheetBuilder.create(formulas).build { w ->
+                w.sheet('Formulas') { s ->
+                    s.row { r ->
+                        r.cell(2)
+                        r.cell(3)
+                        r.cell { c -> c.formula 'A1*B1' }
+                        r.cell { c -> c.formula 'C1+1' }
+                        r.cell { c -> c.formula 'IF(D1>5,"big","small")' }
+                    }
+                }
+            }
+        when:
+            SpreadsheetCriteria plain = PoiSpreadsheetCriteria.FACTORY.forFile(formulas)
+            SpreadsheetCriteria evaluating = PoiSpreadsheetCriteria.FACTORY.forFile(formulas, true)
+            List<Cell> cells = evaluating.all().cells as List<Cell>
+        then:
+            plain.all().cells*.value == [2d, 3d, 'A1*B1', 'C1+1', 'IF(D1>5,"big","small")']
+            cells*.value == [2d, 3d, 6d, 7d, 'big']
+            cells[3].read(Number) == 7d
+            cells[4].read(String) == 'big'
+            cells[2].@evaluatedValue.numberValue == 6d
+            evaluating.find { w -> w.sheet { s -> s.row { r -> r.cell { c -> c.value(7d) } } } }.columnAsString == 'D'
+        cleanup:
+            plain?.close()
+            evaluating?.close()
+    }
+
+    void 'evaluated formula results are read only as their own type'() {
+        given:
+            File formulas = new File(tmp, 'formula-types.xlsx')
+            PoiSpreadsheetBuilder.create(formulas).build { w ->
+                w.sheet('Formulas') { s ->
+                    s.row { r ->
+                        r.cell { c -> c.formula 'CONCATENATE("te","xt")' }
+                        r.cell { c -> c.formula '1/0' }
+                    }
+                }
+            }
+            SpreadsheetCriteria evaluating = PoiSpreadsheetCriteria.FACTORY.forFile(formulas, true)
+            List<Cell> cells = evaluating.all().cells as List<Cell>
+        when:
+            cells[0].read(type)
+        then:
+            IllegalStateException e = thrown(IllegalStateException)
+            e.message == "Cannot get a ${expected} value from a STRING formula cell"
+        and:
+            cells[1].value == '#DIV/0!'
+            evaluating.query { w -> w.sheet { s -> s.row { r -> r.cell { c -> c.number(0d) } } } }.cells.empty
+            evaluating.query { w -> w.sheet { s -> s.row { r -> r.cell { c -> c.bool(false) } } } }.cells.empty
+        cleanup:
+            evaluating?.close()
+        where:
+            type    | expected
+            Number  | 'NUMERIC'
+            Boolean | 'BOOLEAN'
+            Date    | 'NUMERIC'
+    }
+
+    void 'evaluated non-string formula results are not read as strings'() {
+        given:
+            File formulas = new File(tmp, 'formula-strings.xlsx')
+            PoiSpreadsheetBuilder.create(formulas).build { w ->
+                w.sheet('Formulas') { s ->
+                    s.row { r ->
+                        r.cell { c -> c.formula formula }
+                    }
+                }
+            }
+            SpreadsheetCriteria evaluating = PoiSpreadsheetCriteria.FACTORY.forFile(formulas, true)
+            Cell cell = evaluating.all().cell
+        when:
+            cell.read(String)
+        then:
+            IllegalStateException e = thrown(IllegalStateException)
+            e.message == "Cannot get a STRING value from a ${type} formula cell"
+        and:
+            evaluating.query { w -> w.sheet { s -> s.row { r -> r.cell { c -> c.string(text) } } } }.cells.empty
+        cleanup:
+            evaluating?.close()
+        where:
+            formula  | type      | text
+            '40+2'   | 'NUMERIC' | '42'
+            '1=1'    | 'BOOLEAN' | 'true'
+            '1/0'    | 'ERROR'   | '#DIV/0!'
+    }
+
+    void 'formula results are cached at build time if enabled'() {
+        given:
+            File formulas = new File(tmp, "formulas-${streaming}.xlsx")
+            PoiBuilderOptions options = PoiBuilderOptions.create().evaluateFormulas(true)
+            SpreadsheetBuilder builder = streaming ? PoiSpreadsheetBuilder.stream(formulas, options) : PoiSpreadsheetBuilder.create(formulas, options)
+            builder.build { w ->
+                w.sheet('Formulas') { s ->
+                    s.row { r ->
+                        r.cell { c -> c.formula 'D1+1' }
+                        r.cell(2)
+                        r.cell(3)
+                        r.cell { c -> c.formula 'B1*C1' }
+                        r.cell { c -> c.formula 'IF(A1>5,"big","small")' }
+                    }
+                    (2..250).each { int n ->
+                        s.row { r ->
+                            r.cell(n)
+                            r.cell { c -> c.formula "A${n}*2" }
+                        }
+                    }
+                }
+            }
+        when:
+            SpreadsheetCriteria plain = PoiSpreadsheetCriteria.FACTORY.forFile(formulas)
+            List<Cell> cells = plain.query { w -> w.sheet { s -> s.row(1) } }.cells as List<Cell>
+            List<Cell> doubled = plain.all().cells.findAll { Cell cell -> cell.row.number > 1 && cell.column == 2 } as List<Cell>
+        then:
+            cells*.value == ['D1+1', 2d, 3d, 'B1*C1', 'IF(A1>5,"big","small")']
+            cells[0].read(Number) == 7d
+            cells[3].read(Number) == 6d
+            cells[4].read(String) == 'big'
+            doubled.size() == 249
+            doubled*.read(Number) == (2..250).collect { it * 2d }
+        cleanup:
+            plain?.close()
+        where:
+            streaming << [false, true]
+    }
+
+    @Requires({ new File('/proc/self/fd').directory })
+    void 'criteria opened from file keep the file open until closed'() {
+        given:
+            SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.openFile(file)
+        expect:
+            criteria.all().cells.size() == 12
+            openDescriptors(file) > 0
+        when:
+            criteria.close()
+        then:
+            openDescriptors(file) == 0
+    }
+
+    @Requires({ new File('/proc/self/fd').directory })
+    void 'criteria for file does not keep the file open'() {
+        when:
+            SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFile(file)
+        then:
+            openDescriptors(file) == 0
+            criteria.all().cells.size() == 12
+            criteria.find { w -> w.sheet { s -> s.row { r -> r.cell { c -> c.value('Second 2') } } } }.right.value == 2
+    }
+
+    void 'missing file is reported'() {
+        when:
+            PoiSpreadsheetCriteria.FACTORY.forFile(new File(tmp, 'missing.xlsx'))
+        then:
+            thrown(FileNotFoundException)
+    }
+
+    void 'shared criteria can be queried concurrently'() {
+        given:
+            SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFileShared(file)
+            ExecutorService executor = Executors.newFixedThreadPool(8)
+        when:
+            List<Future<List<String>>> futures = (1..64).collect { int i ->
+                String sheetName = ['First', 'Second', 'Third'][i % 3]
+                executor.submit({ ->
+                    criteria.query { w -> w.sheet(sheetName) { s -> s.row { r -> r.cell { c -> c.value(2) } } } }.cells.collect { Cell cell ->
+                        cell.left.read(String)
+                    }
+                } as Callable<List<String>>)
+            }
+            List<List<String>> results = futures*.get()
+        then:
+            results.size() == 64
+            results.eachWithIndex { List<String> result, int i ->
+                assert result == ["${['First', 'Second', 'Third'][(i + 1) % 3]} 2".toString()]
+            }
+        cleanup:
+            executor.shutdownNow()
+    }
+
+    void 'shared criteria keep values, spans and names'() {
+        given:
+            File merged = new File(tmp, 'merged.xlsx')
+            PoiSpreadsheetBuilder.create(merged).build { w ->
+                w.sheet('Merged') { s ->
+                    s.row { r ->
+                        r.cell { c ->
+                            c.value 'Header'
+                            c.colspan 2
+                            c.name 'TheHeader'
+                        }
+                    }
+                    s.row { r ->
+                        r.cell(10.5d)
+                        r.cell(true)
+                    }
+                }
+            }
+        when:
+            SpreadsheetCriteria criteria = PoiSpreadsheetCriteria.FACTORY.forFileShared(merged)
+            Cell header = criteria.query { w -> w.sheet('Merged') { s -> s.row(1) } }.cell
+            List<Cell> values = criteria.query { w -> w.sheet('Merged') { s -> s.row(2) } }.cells as List<Cell>
+        then:
+            header.read(String) == 'Header'
+            header.colspan == 2
+            header.name == 'TheHeader'
+            header.below.read(Number) == 10.5d
+            values*.value == [10.5d, true]
+    }
+
+    void 'lazy criteria parse only the sheets accepted by the query'() {
+        given:
+            PoiSnapshotWorkbook workbook = PoiLazyWorkbook.open(file)
+            SpreadsheetCriteria criteria = SimpleSpreadsheetCriteria.forWorkbook(workbook)
+        when:
+            Cell cell = criteria.find { w -> w.sheet('Second') { s -> s.row { r -> r.cell { c -> c.value(2) } } } }
+        then:
+            cell.left.read(String) == 'Second 2'
+            cell.row.sheet.is(workbook.getSheetAt(1))
+            !workbook.getSheetAt(0).loaded
+            workbook.getSheetAt(1).loaded
+            !workbook.getSheetAt(2).loaded
+            workbook.cellCount == 4
+
+        when:
+            criteria.close()
+            workbook.getSheetAt(2).rows
+        then:
+            thrown(IllegalStateException)
+    }
+
+    void 'shared formulas are translated for every cell when read lazily'() {
+        expect:
+            new PoiSharedFormula(formula, 1, 1).translate(1 + rows, 1 + columns) == expected
+        where:
+            formula                          | rows | columns | expected
+            'A1*2'                           | 0    | 0       | 'A1*2'
+            'A1*2'                           | 1    | 0       | 'A2*2'
+            'SUM($A1:B$2)+C3'                | 2    | 1       | 'SUM($A3:C$2)+D5'
+            'IF(A1="A1",LOG10(B2),0)'        | 1    | 1       | 'IF(B2="A1",LOG10(C3),0)'
+            '"say ""B2"""&B2'                | 1    | 0       | '"say ""B2"""&B3'
+            '\'Sheet A1\'!A1+Sheet2!B2'      | 1    | 0       | '\'Sheet A1\'!A2+Sheet2!B3'
+            '\'O\'\'Brien B2\'!B2*Rate'      | 1    | 1       | '\'O\'\'Brien B2\'!C3*Rate'
+    }
+
+    void 'lazy criteria keep shared strings encoded outside of the heap'() {
+        given:
+            PoiSnapshotWorkbook workbook = PoiLazyWorkbook.open(file)
+            SpreadsheetCriteria criteria = SimpleSpreadsheetCriteria.forWorkbook(workbook)
+        when:
+            EncodedStringCell cell = criteria.find { w -> w.sheet { s -> s.row { r -> r.cell { c -> c.string('Third 2') } } } } as EncodedStringCell
+            PoiSharedStringsArena strings = workbook.getSheetAt(2).data.sharedStrings
+        then:
+            cell.value == 'Third 2'
+            cell.read(String) == 'Third 2'
+            cell.stringEquals('Third 2', 'Third 2'.getBytes('UTF-8'))
+            !cell.stringEquals('Third', 'Third'.getBytes('UTF-8'))
+            strings.size() == 6
+            strings.encodedSize == 'FirstFirst 2SecondSecond 2ThirdThird 2'.length()
+        cleanup:
+            criteria.close()
+    }
+
+    void 'shared strings escapes are decoded'() {
+        expect:
+            PoiSharedStringsArena.decodeEscapes(encoded) == decoded
+        where:
+            encoded                 | decoded
+            null                    | null
+            'plain'                 | 'plain'
+            'line_x000D_break'      | 'line\rbreak'
+            '_x0041__x0042_ and _x' | 'AB and _x'
+    }
+
+    private Row recording(Row row, List<ColumnProjection> projections) {
+        return Stub(Row) {
+            getNumber() >> row.number
+            getSheet() >> row.sheet
+            getCells() >> {
+                projections << ColumnProjection.ALL
+                return row.cells
+            }
+            getCells(_ as ColumnProjection) >> { ColumnProjection projection ->
+                projections << projection
+                return row.getCells(projection)
+            }
+        }
+    }
+
+    private static int openDescriptors(File file) {
+        String path = file.canonicalPath
+        return new File('/proc/self/fd').listFiles().count { File descriptor ->
+            try {
+                return Files.readSymbolicLink(descriptor.toPath()).toString() == path
+            } catch (IOException ignored) {
+                // the descriptor has been closed while listing
+                return false
+            }
+        } as int
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi
+
+import builders.dsl.spreadsheet.api.ColumnProjection
+import builders.dsl.spreadsheet.api.Row
+import builders.dsl.spreadsheet.api.RowMapper
+import builders.dsl.spreadsheet.api.Sheet
+import builders.dsl.spreadsheet.builder.poi.PoiSpreadsheetBuilder
+import builders.dsl.spreadsheet.query.api.SpreadsheetCriteria
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.util.function.Function
+import java.util.stream.Collectors
+
+class RowMapperSpec extends Specification {
+
+    record Person(String firstName, int age, Boolean active, String note) {}
+
+    static class Employee {
+        String firstName
+        long age
+        String department
+    }
+
+    @TempDir File tmp
+
+    SpreadsheetCriteria criteria
+
+    void setup() {
+        File file = new File(tmp, 'people.xlsx')
+        PoiSpreadsheetBuilder.create(file).build { w ->
+            w.sheet('People') { s ->
+                s.row { r ->
+                    r.cell('Ignored')
+                    r.cell('Age')
+                    r.cell('First Name')
+                    r.cell('Active')
+                    r.cell('Dept.')
+                }
+                s.row { r ->
+                    r.cell('x')
+                    r.cell(42)
+                    r.cell('Alice')
+                    r.cell(true)
+                    r.cell('IT')
+                }
+                s.row { r ->
+                    r.cell('y')
+                    r.cell('7')
+                    r.cell('Bob')
+                }
+            }
+        }
+        criteria = PoiSpreadsheetCriteria.FACTORY.forFile(file)
+    }
+
+    void cleanup() {
+        criteria.close()
+    }
+
+    void 'rows are mapped to records'() {
+        given:
+            Sheet sheet = criteria.query { w -> w.sheet('People') }.sheet
+        when:
+            List<Person> people = RowMapper.create(Person).stream(sheet).collect(Collectors.toList())
+        then:
+            people == [
+                new Person('Alice', 42, true, null),
+                new Person('Bob', 7, null, null),
+            ]
+    }
+
+    void 'rows are mapped to objects with explicit headers'() {
+        given:
+            List<Row> rows = criteria.query { w -> w.sheet('People') }.rows as List<Row>
+        when:
+            Function<Row, Employee> mapper = RowMapper.create(Employee, [department: 'Dept.']).bind(rows[0])
+            Employee alice = mapper.apply(rows[1])
+            Employee bob = mapper.apply(rows[2])
+        then:
+            alice.firstName == 'Alice'
+            alice.age == 42L
+            alice.department == 'IT'
+            bob.firstName == 'Bob'
+            bob.age == 7L
+            bob.department == null
+    }
+
+    void 'only the mapped columns are read'() {
+        given:
+            List<Row> rows = criteria.query { w -> w.sheet('People') }.rows as List<Row>
+            Function<Row, Person> mapper = RowMapper.create(Person).bind(rows[0])
+            Row row = Mock(Row)
+        when:
+            Person person = mapper.apply(row)
+        then:
+            1 * row.getCells(ColumnProjection.of(2, 3, 4)) >> { ColumnProjection projection -> rows[1].getCells(projection) }
+            0 * row.getCells()
+            person == new Person('Alice', 42, true, null)
+    }
+
+    void 'rows of the sheet are mapped lazily'() {
+        given:
+            List<Row> rows = criteria.query { w -> w.sheet('People') }.rows as List<Row>
+            List<Row> pulled = []
+            Collection<Row> source = new AbstractCollection<Row>() {
+                @Override
+                Iterator<Row> iterator() {
+                    return rows.stream().peek { Row row -> pulled << row }.iterator()
+                }
+
+                @Override
+                int size() {
+                    return rows.size()
+                }
+            }
+            Sheet sheet = Stub(Sheet) {
+                getRows() >> source
+            }
+        when:
+            Optional<Person> first = RowMapper.create(Person).stream(sheet).findFirst()
+        then:
+            first.get() == new Person('Alice', 42, true, null)
+            pulled.size() == 2
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2026 Vladimir Orany.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package builders.dsl.spreadsheet.query.poi
+
+import builders.dsl.spreadsheet.builder.poi.PoiSpreadsheetBuilder
+import builders.dsl.spreadsheet.query.api.SpreadsheetCriteria
+import spock.lang.Specification
+import spock.lang.TempDir
+
+class SpreadsheetCriteriaCacheSpec extends Specification {
+
+    @TempDir File tmp
+
+    void 'criteria are cached until the file changes'() {
+        given:
+            File file = create('cached.xlsx', 'Original')
+            SpreadsheetCriteriaCache cache = SpreadsheetCriteriaCache.create(Long.MAX_VALUE)
+        when:
+            SpreadsheetCriteria first = cache.forFile(file)
+            SpreadsheetCriteria second = cache.forFile(new File(file.parentFile, "./${file.name}"))
+        then:
+            first.is(second)
+            cache.size() == 1
+            cache.hitCount == 1
+            cache.missCount == 1
+            cache.weight > 0
+
+        when:
+            create('cached.xlsx', 'Changed value')
+            file.setLastModified(file.lastModified() + 2000)
+            SpreadsheetCriteria third = cache.forFile(file)
+        then:
+            !third.is(first)
+            third.find { w -> w.sheet { s -> s.row { r -> r.cell { c -> c.value 'Changed value' } } } }
+            cache.size() == 1
+            cache.hitCount == 1
+            cache.missCount == 2
+            cache.evictionCount == 0
+    }
+
+    void 'least recently used criteria are evicted when the weight is exceeded'() {
+        given:
+            File one = create('one.xlsx', 'One')
+            File two = create('two.xlsx', 'Two')
+            File three = create('three.xlsx', 'Three')
+            SpreadsheetCriteriaCache probe = SpreadsheetCriteriaCache.create(Long.MAX_VALUE)
+            probe.forFile(one)
+            SpreadsheetCriteriaCache cache = SpreadsheetCriteriaCache.create(probe.weight * 5 / 2 as long)
+        when:
+            SpreadsheetCriteria first = cache.forFile(one)
+            cache.forFile(two)
+            cache.forFile(one)
+            cache.forFile(three)
+        then:
+            cache.size() == 2
+            cache.evictionCount == 1
+            cache.forFile(one).is(first)
+            cache.hitCount == 2
+            cache.missCount == 3
+
+        when:
+            cache.invalidateAll()
+        then:
+            cache.size() == 0
+            cache.weight == 0
+    }
+
+    void 'criteria of deleted file can be invalidated'() {
+        given:
+            File file = create('deleted.xlsx', 'Deleted')
+            SpreadsheetCriteriaCache cache = SpreadsheetCriteriaCache.create(Long.MAX_VALUE)
+            cache.forFile(file)
+        when:
+            file.delete()
+            cache.invalidate(new File(file.parentFile, "./${file.name}"))
+        then:
+            cache.size() == 0
+            cache.weight == 0
+    }
+
+    void 'missing file is reported'() {
+        when:
+            SpreadsheetCriteriaCache.create(1024).forFile(new File(tmp, 'missing.xlsx'))
+        then:
+            thrown(FileNotFoundException)
+    }
+
+    private File create(String name, String value) {
+        File file = new File(tmp, name)
+        PoiSpreadsheetBuilder.create(file).build { w ->
+            w.sheet('Sheet') { s ->
+                s.row { r ->
+                    r.cell(value)
+                }
+            }
+        }
+        return file
+    }
+
+}